@@ -5,13 +5,15 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * FeignClient for communicating with car-service.
  */
-@FeignClient(name = "car-service", url = "${car.service.url:http://localhost:8081}")
+@FeignClient(name = "car-service")
 public interface CarServiceClient {
 
     /**
@@ -25,5 +27,11 @@ public interface CarServiceClient {
      */
     @GetMapping("/api/cars/{id}")
     ResponseEntity<Car> getCarById(@PathVariable Long id);
+
+    /**
+     * Get several cars by ID from car-service in one call (up to 1000, unknown IDs are left out).
+     */
+    @GetMapping("/api/cars/batch")
+    ResponseEntity<List<Car>> getCarsByIds(@RequestParam("ids") Collection<Long> ids);
 }
 
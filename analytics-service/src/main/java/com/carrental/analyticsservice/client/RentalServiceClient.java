@@ -5,13 +5,15 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * FeignClient for communicating with rental-service.
  */
-@FeignClient(name = "rental-service", url = "${rental.service.url:http://localhost:8082}")
+@FeignClient(name = "rental-service")
 public interface RentalServiceClient {
 
     /**
@@ -25,5 +27,16 @@ public interface RentalServiceClient {
      */
     @GetMapping("/api/rentals/car/{carId}")
     ResponseEntity<List<Rental>> getRentalsByCarId(@PathVariable Long carId);
-}
 
+    /**
+     * Get the rentals of several cars from rental-service in one call (up to 1000 car IDs).
+     */
+    @GetMapping("/api/rentals/cars")
+    ResponseEntity<List<Rental>> getRentalsByCarIds(@RequestParam("ids") Collection<Long> carIds);
+
+    /**
+     * Get the rentals with an ID greater than {@code afterId}, by ascending ID (up to 1000 per call).
+     */
+    @GetMapping("/api/rentals/feed")
+    ResponseEntity<List<Rental>> getRentalsAfter(@RequestParam("afterId") long afterId, @RequestParam("limit") int limit);
+}
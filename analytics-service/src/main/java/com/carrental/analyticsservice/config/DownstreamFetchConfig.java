@@ -0,0 +1,31 @@
+package com.carrental.analyticsservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor of the downstream fetches of the occupancy computations: the car-service and rental-service calls of a
+ * request run concurrently. The trace context and MDC of the request are propagated to the fetch threads.
+ */
+@Configuration
+public class DownstreamFetchConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor downstreamFetchExecutor(@Value("${analytics.fetch.threads:64}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // No queue: a fetch either starts at once or runs on the request thread
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("downstream-fetch-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        // When every thread is busy the request thread makes the call itself: the fetches are then sequential
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
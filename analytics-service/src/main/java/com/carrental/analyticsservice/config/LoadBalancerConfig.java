@@ -0,0 +1,14 @@
+package com.carrental.analyticsservice.config;
+
+import com.carrental.common.loadbalancer.LoadBalancedClientConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Client-side load balancing for the Feign clients of car-service and rental-service.
+ * Each downstream service gets its own {@link LoadBalancedClientConfiguration} context.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancedClientConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,29 @@
+package com.carrental.analyticsservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fork-join pool of the parallel occupancy computations (large fleets, see {@code AnalyticsService}).
+ * Dedicated, so that they neither compete with nor wait behind parallel streams of the common pool, and bounded: the
+ * computations never block, so the pool never adds compensation threads beyond its parallelism.
+ */
+@Configuration
+public class OccupancyComputeConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool occupancyComputePool(@Value("${analytics.occupancy.parallel.threads:0}") int threads) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("occupancy-compute-" + thread.getPoolIndex());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, factory, null, false, 0, parallelism, 1, null, 60, TimeUnit.SECONDS);
+    }
+}
@@ -1,16 +1,25 @@
 package com.carrental.analyticsservice.controller;
 
+import com.carrental.analyticsservice.dto.BrandRevenue;
+import com.carrental.analyticsservice.dto.CarRevenue;
 import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.dto.OccupancyTimeSeries;
+import com.carrental.analyticsservice.dto.RevenueReport;
 import com.carrental.analyticsservice.service.AnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Contrôleur REST pour les opérations d'analyse.
@@ -21,9 +30,11 @@ import java.util.List;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, ObjectMapper objectMapper) {
         this.analyticsService = analyticsService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/occupancy")
@@ -50,5 +61,110 @@ public class AnalyticsController {
         OccupancyRate occupancyRate = analyticsService.calculateOccupancyRateForCar(carId, startDate, endDate);
         return ResponseEntity.ok(occupancyRate);
     }
-}
 
+    @GetMapping("/occupancy/timeseries")
+    @Operation(summary = "Obtenir l'occupation par jour, semaine ou mois",
+               description = "Calcule l'occupation d'une voiture (carId) ou de toute la flotte découpée en intervalles "
+                   + "(DAY, WEEK du lundi au dimanche, MONTH). Tous les intervalles sont calculés en un seul passage sur les "
+                   + "locations ; 1000 intervalles au plus. La valeur par défaut est les 30 derniers jours si aucune date n'est fournie.")
+    public ResponseEntity<OccupancyTimeSeries> getOccupancyTimeSeries(
+            @Parameter(description = "Bucket size: DAY, WEEK or MONTH. Defaults to DAY.")
+            @RequestParam(defaultValue = "DAY") OccupancyTimeSeries.Granularity granularity,
+            @Parameter(description = "Car ID. The whole fleet if not provided.")
+            @RequestParam(required = false) Long carId,
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        OccupancyTimeSeries timeSeries =
+            analyticsService.calculateOccupancyTimeSeries(carId, granularity, startDate, endDate);
+        return ResponseEntity.ok(timeSeries);
+    }
+
+    @GetMapping(value = "/occupancy/cars", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Obtenir les taux d'occupation de plusieurs voitures, en flux",
+               description = "Calcule les taux d'occupation de 1000 voitures au plus (p. ex. ?ids=1,2,3) avec des appels groupés "
+                   + "à car-service et rental-service. Les taux sont renvoyés en NDJSON (un objet par ligne) au fur et à mesure "
+                   + "du calcul, sans ordre garanti ; les ID inconnus sont ignorés.")
+    public ResponseEntity<StreamingResponseBody> streamOccupancyRatesForCars(
+            @Parameter(description = "Car IDs, comma-separated or repeated")
+            @RequestParam("ids") List<Long> carIds,
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Paramètres vérifiés et appels lancés avant le début de la réponse
+        Stream<List<OccupancyRate>> batches = analyticsService.streamOccupancyRatesForCars(carIds, startDate, endDate);
+        StreamingResponseBody body = out -> {
+            try (batches) {
+                Iterator<List<OccupancyRate>> iterator = batches.iterator();
+                while (iterator.hasNext()) {
+                    for (OccupancyRate occupancyRate : iterator.next()) {
+                        out.write(objectMapper.writeValueAsBytes(occupancyRate));
+                        out.write('\n');
+                    }
+                    // Chaque lot est envoyé dès qu'il est calculé
+                    out.flush();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Obtenir le chiffre d'affaires de la flotte",
+               description = "Calcule le chiffre d'affaires de toute la flotte sur une période, au total et par intervalle "
+                   + "(DAY, WEEK, MONTH), avec le chiffre d'affaires par jour-voiture disponible (RevPAC). Le montant d'une "
+                   + "location est réparti entre ses jours. La valeur par défaut est les 30 derniers jours si aucune date n'est fournie.")
+    public ResponseEntity<RevenueReport> getRevenue(
+            @Parameter(description = "Bucket size: DAY, WEEK or MONTH. Defaults to MONTH.")
+            @RequestParam(defaultValue = "MONTH") OccupancyTimeSeries.Granularity granularity,
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        RevenueReport report = analyticsService.calculateRevenue(granularity, startDate, endDate);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/revenue/cars")
+    @Operation(summary = "Obtenir le chiffre d'affaires de chaque voiture",
+               description = "Calcule le chiffre d'affaires et le RevPAC de chaque voiture sur une période. "
+                   + "La valeur par défaut est les 30 derniers jours si aucune date n'est fournie.")
+    public ResponseEntity<List<CarRevenue>> getRevenueByCar(
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<CarRevenue> revenues = analyticsService.calculateRevenueByCar(startDate, endDate);
+        return ResponseEntity.ok(revenues);
+    }
+
+    @GetMapping("/revenue/cars/top")
+    @Operation(summary = "Obtenir les voitures au plus fort chiffre d'affaires",
+               description = "Renvoie les voitures au plus fort chiffre d'affaires sur une période (100 au plus), par ordre "
+                   + "décroissant. La valeur par défaut est les 30 derniers jours si aucune date n'est fournie.")
+    public ResponseEntity<List<CarRevenue>> getTopCarsByRevenue(
+            @Parameter(description = "Number of cars (1-100). Defaults to 10.")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<CarRevenue> revenues = analyticsService.calculateTopCarsByRevenue(limit, startDate, endDate);
+        return ResponseEntity.ok(revenues);
+    }
+
+    @GetMapping("/revenue/brands")
+    @Operation(summary = "Obtenir le chiffre d'affaires par marque",
+               description = "Calcule le chiffre d'affaires et le RevPAC des voitures de chaque marque sur une période, par ordre "
+                   + "décroissant. La valeur par défaut est les 30 derniers jours si aucune date n'est fournie.")
+    public ResponseEntity<List<BrandRevenue>> getRevenueByBrand(
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to 30 days ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<BrandRevenue> revenues = analyticsService.calculateRevenueByBrand(startDate, endDate);
+        return ResponseEntity.ok(revenues);
+    }
+}
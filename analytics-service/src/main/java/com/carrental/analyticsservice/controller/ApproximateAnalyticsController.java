@@ -0,0 +1,80 @@
+package com.carrental.analyticsservice.controller;
+
+import com.carrental.analyticsservice.dto.DistinctClientsEstimate;
+import com.carrental.analyticsservice.dto.DistributionEstimate;
+import com.carrental.analyticsservice.dto.OccupancyEstimate;
+import com.carrental.analyticsservice.service.ApproximateAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Contrôleur REST pour l'analyse approximative (sketches), activé par {@code analytics.approximate.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/analytics/approximate")
+@ConditionalOnProperty(name = "analytics.approximate.enabled", havingValue = "true")
+@Tag(name = "Contrôleur d'Analyse Approximative",
+     description = "Estimations en temps constant sur tout l'historique des locations, avec leurs bornes d'erreur")
+public class ApproximateAnalyticsController {
+
+    private final ApproximateAnalyticsService approximateAnalyticsService;
+
+    public ApproximateAnalyticsController(ApproximateAnalyticsService approximateAnalyticsService) {
+        this.approximateAnalyticsService = approximateAnalyticsService;
+    }
+
+    @GetMapping("/clients")
+    @Operation(summary = "Estimer le nombre de clients distincts",
+               description = "Estime (HyperLogLog) le nombre de clients distincts d'une voiture (carId), d'une marque (brand) "
+                   + "ou de toute la flotte, sur tout l'historique. Bornes à environ 95 %.")
+    public ResponseEntity<DistinctClientsEstimate> estimateDistinctClients(
+            @Parameter(description = "Car ID (optional)")
+            @RequestParam(required = false) Long carId,
+            @Parameter(description = "Brand (optional)")
+            @RequestParam(required = false) String brand) {
+        return ResponseEntity.ok(approximateAnalyticsService.estimateDistinctClients(carId, brand));
+    }
+
+    @GetMapping("/rental-length")
+    @Operation(summary = "Estimer la distribution de la durée des locations",
+               description = "Quantiles (sketch KLL) de la durée des locations en jours, pour une marque ou toute la flotte, "
+                   + "sur tout l'historique.")
+    public ResponseEntity<DistributionEstimate> estimateRentalLength(
+            @Parameter(description = "Brand (optional)")
+            @RequestParam(required = false) String brand) {
+        return ResponseEntity.ok(approximateAnalyticsService.estimateRentalLength(brand));
+    }
+
+    @GetMapping("/occupancy")
+    @Operation(summary = "Estimer le taux d'occupation",
+               description = "Estime le taux d'occupation d'une marque ou de toute la flotte sur une période, à partir d'un "
+                   + "échantillon des locations, avec un intervalle de confiance à 95 %. La valeur par défaut est l'année écoulée.")
+    public ResponseEntity<OccupancyEstimate> estimateOccupancy(
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to one year ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Brand (optional)")
+            @RequestParam(required = false) String brand) {
+        return ResponseEntity.ok(approximateAnalyticsService.estimateOccupancy(startDate, endDate, brand));
+    }
+
+    @GetMapping("/occupancy/distribution")
+    @Operation(summary = "Estimer la distribution du taux d'occupation mensuel",
+               description = "Quantiles (sketch KLL) du taux d'occupation mensuel des voitures, une valeur par voiture et par "
+                   + "mois, sur les mois de la période. La valeur par défaut est l'année écoulée.")
+    public ResponseEntity<DistributionEstimate> estimateMonthlyOccupancy(
+            @Parameter(description = "Start date (format: yyyy-MM-dd). Defaults to one year ago if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (format: yyyy-MM-dd). Defaults to today if not provided.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(approximateAnalyticsService.estimateMonthlyOccupancy(startDate, endDate));
+    }
+}
@@ -0,0 +1,66 @@
+package com.carrental.analyticsservice.dto;
+
+/**
+ * DTO représentant le chiffre d'affaires des voitures d'une marque sur une période.
+ * {@code revenuePerAvailableDay} (RevPAC) est rapporté aux jours-voiture disponibles : jours de la période multipliés par
+ * le nombre de voitures de la marque.
+ */
+public class BrandRevenue {
+    private String brand;
+    private Integer numberOfCars;
+    private Double revenue;
+    private Integer numberOfRentals;
+    private Double revenuePerAvailableDay;
+
+    public BrandRevenue() {
+    }
+
+    public BrandRevenue(String brand, Integer numberOfCars, Double revenue, Integer numberOfRentals,
+                        Double revenuePerAvailableDay) {
+        this.brand = brand;
+        this.numberOfCars = numberOfCars;
+        this.revenue = revenue;
+        this.numberOfRentals = numberOfRentals;
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public Integer getNumberOfCars() {
+        return numberOfCars;
+    }
+
+    public void setNumberOfCars(Integer numberOfCars) {
+        this.numberOfCars = numberOfCars;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(Double revenue) {
+        this.revenue = revenue;
+    }
+
+    public Integer getNumberOfRentals() {
+        return numberOfRentals;
+    }
+
+    public void setNumberOfRentals(Integer numberOfRentals) {
+        this.numberOfRentals = numberOfRentals;
+    }
+
+    public Double getRevenuePerAvailableDay() {
+        return revenuePerAvailableDay;
+    }
+
+    public void setRevenuePerAvailableDay(Double revenuePerAvailableDay) {
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+}
@@ -0,0 +1,96 @@
+package com.carrental.analyticsservice.dto;
+
+/**
+ * DTO représentant le chiffre d'affaires d'une voiture sur une période.
+ * {@code revenuePerAvailableDay} (RevPAC) est le chiffre d'affaires divisé par le nombre de jours de la période.
+ * {@code rentedDays} additionne les jours facturés de chaque location compris dans la période.
+ */
+public class CarRevenue {
+    private Long carId;
+    private String brand;
+    private String model;
+    private Integer year;
+    private Double revenue;
+    private Long rentedDays;
+    private Integer numberOfRentals;
+    private Double revenuePerAvailableDay;
+
+    public CarRevenue() {
+    }
+
+    public CarRevenue(Long carId, String brand, String model, Integer year, Double revenue, Long rentedDays,
+                      Integer numberOfRentals, Double revenuePerAvailableDay) {
+        this.carId = carId;
+        this.brand = brand;
+        this.model = model;
+        this.year = year;
+        this.revenue = revenue;
+        this.rentedDays = rentedDays;
+        this.numberOfRentals = numberOfRentals;
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(Double revenue) {
+        this.revenue = revenue;
+    }
+
+    public Long getRentedDays() {
+        return rentedDays;
+    }
+
+    public void setRentedDays(Long rentedDays) {
+        this.rentedDays = rentedDays;
+    }
+
+    public Integer getNumberOfRentals() {
+        return numberOfRentals;
+    }
+
+    public void setNumberOfRentals(Integer numberOfRentals) {
+        this.numberOfRentals = numberOfRentals;
+    }
+
+    public Double getRevenuePerAvailableDay() {
+        return revenuePerAvailableDay;
+    }
+
+    public void setRevenuePerAvailableDay(Double revenuePerAvailableDay) {
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+}
@@ -0,0 +1,76 @@
+package com.carrental.analyticsservice.dto;
+
+/**
+ * DTO représentant le nombre estimé de clients distincts d'une voiture, d'une marque ou de toute la flotte
+ * (HyperLogLog). Les bornes encadrent la valeur exacte avec une probabilité d'environ 95 % ;
+ * {@code numberOfRentals} est exact.
+ */
+public class DistinctClientsEstimate {
+    private Long carId;
+    private String brand;
+    private Long numberOfRentals;
+    private Long estimate;
+    private Long lowerBound;
+    private Long upperBound;
+
+    public DistinctClientsEstimate() {
+    }
+
+    public DistinctClientsEstimate(Long carId, String brand, Long numberOfRentals, Long estimate, Long lowerBound,
+                                   Long upperBound) {
+        this.carId = carId;
+        this.brand = brand;
+        this.numberOfRentals = numberOfRentals;
+        this.estimate = estimate;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public Long getNumberOfRentals() {
+        return numberOfRentals;
+    }
+
+    public void setNumberOfRentals(Long numberOfRentals) {
+        this.numberOfRentals = numberOfRentals;
+    }
+
+    public Long getEstimate() {
+        return estimate;
+    }
+
+    public void setEstimate(Long estimate) {
+        this.estimate = estimate;
+    }
+
+    public Long getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(Long lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public Long getUpperBound() {
+        return upperBound;
+    }
+
+    public void setUpperBound(Long upperBound) {
+        this.upperBound = upperBound;
+    }
+}
@@ -0,0 +1,68 @@
+package com.carrental.analyticsservice.dto;
+
+import java.util.Map;
+
+/**
+ * DTO représentant une distribution estimée (sketch de quantiles KLL) : quantiles p10 à p99, minimum et maximum exacts.
+ * L'erreur de rang normalisée {@code normalizedRankError} borne l'écart de rang de chaque quantile (p. ex. 0,0133 :
+ * la valeur renvoyée pour p50 est entre p48,67 et p51,33).
+ */
+public class DistributionEstimate {
+    private Long count;
+    private Double min;
+    private Double max;
+    private Map<String, Double> quantiles;
+    private Double normalizedRankError;
+
+    public DistributionEstimate() {
+    }
+
+    public DistributionEstimate(Long count, Double min, Double max, Map<String, Double> quantiles,
+                                Double normalizedRankError) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.quantiles = quantiles;
+        this.normalizedRankError = normalizedRankError;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    public Map<String, Double> getQuantiles() {
+        return quantiles;
+    }
+
+    public void setQuantiles(Map<String, Double> quantiles) {
+        this.quantiles = quantiles;
+    }
+
+    public Double getNormalizedRankError() {
+        return normalizedRankError;
+    }
+
+    public void setNormalizedRankError(Double normalizedRankError) {
+        this.normalizedRankError = normalizedRankError;
+    }
+}
@@ -0,0 +1,67 @@
+package com.carrental.analyticsservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO représentant l'occupation d'un intervalle (jour, semaine ou mois) d'une série temporelle.
+ * {@code rentedDays} est un nombre de jours-voiture : un jour où trois voitures sont louées compte pour trois.
+ */
+public class OccupancyBucket {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long totalDays;
+    private Long rentedDays;
+    private Double occupancyPercentage;
+
+    public OccupancyBucket() {
+    }
+
+    public OccupancyBucket(LocalDate startDate, LocalDate endDate, Long totalDays,
+                           Long rentedDays, Double occupancyPercentage) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalDays = totalDays;
+        this.rentedDays = rentedDays;
+        this.occupancyPercentage = occupancyPercentage;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getTotalDays() {
+        return totalDays;
+    }
+
+    public void setTotalDays(Long totalDays) {
+        this.totalDays = totalDays;
+    }
+
+    public Long getRentedDays() {
+        return rentedDays;
+    }
+
+    public void setRentedDays(Long rentedDays) {
+        this.rentedDays = rentedDays;
+    }
+
+    public Double getOccupancyPercentage() {
+        return occupancyPercentage;
+    }
+
+    public void setOccupancyPercentage(Double occupancyPercentage) {
+        this.occupancyPercentage = occupancyPercentage;
+    }
+}
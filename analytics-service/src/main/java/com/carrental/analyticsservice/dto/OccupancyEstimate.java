@@ -0,0 +1,129 @@
+package com.carrental.analyticsservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO représentant le taux d'occupation estimé d'une marque ou de toute la flotte, à partir d'un échantillon des locations.
+ * {@code lowerBound} et {@code upperBound} forment un intervalle de confiance au niveau {@code confidenceLevel} ;
+ * {@code sampleSize} est le nombre de locations échantillonnées de la marque ou de la flotte.
+ */
+public class OccupancyEstimate {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String brand;
+    private Integer numberOfCars;
+    private Long numberOfRentals;
+    private Integer sampleSize;
+    private Long rentedDays;
+    private Double occupancyPercentage;
+    private Double lowerBound;
+    private Double upperBound;
+    private Double confidenceLevel;
+
+    public OccupancyEstimate() {
+    }
+
+    public OccupancyEstimate(LocalDate startDate, LocalDate endDate, String brand, Integer numberOfCars,
+                             Long numberOfRentals, Integer sampleSize, Long rentedDays, Double occupancyPercentage,
+                             Double lowerBound, Double upperBound, Double confidenceLevel) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.brand = brand;
+        this.numberOfCars = numberOfCars;
+        this.numberOfRentals = numberOfRentals;
+        this.sampleSize = sampleSize;
+        this.rentedDays = rentedDays;
+        this.occupancyPercentage = occupancyPercentage;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public Integer getNumberOfCars() {
+        return numberOfCars;
+    }
+
+    public void setNumberOfCars(Integer numberOfCars) {
+        this.numberOfCars = numberOfCars;
+    }
+
+    public Long getNumberOfRentals() {
+        return numberOfRentals;
+    }
+
+    public void setNumberOfRentals(Long numberOfRentals) {
+        this.numberOfRentals = numberOfRentals;
+    }
+
+    public Integer getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(Integer sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public Long getRentedDays() {
+        return rentedDays;
+    }
+
+    public void setRentedDays(Long rentedDays) {
+        this.rentedDays = rentedDays;
+    }
+
+    public Double getOccupancyPercentage() {
+        return occupancyPercentage;
+    }
+
+    public void setOccupancyPercentage(Double occupancyPercentage) {
+        this.occupancyPercentage = occupancyPercentage;
+    }
+
+    public Double getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(Double lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public Double getUpperBound() {
+        return upperBound;
+    }
+
+    public void setUpperBound(Double upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    public Double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(Double confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+}
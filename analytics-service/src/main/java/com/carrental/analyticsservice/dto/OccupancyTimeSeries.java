@@ -0,0 +1,101 @@
+package com.carrental.analyticsservice.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * DTO représentant l'occupation d'une voiture, ou de toute la flotte, découpée en intervalles successifs.
+ * {@code carId} est vide pour la flotte ; {@code numberOfCars} est le nombre de voitures prises en compte.
+ */
+public class OccupancyTimeSeries {
+    private Long carId;
+    private Granularity granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer numberOfCars;
+    private List<OccupancyBucket> buckets;
+
+    public OccupancyTimeSeries() {
+    }
+
+    public OccupancyTimeSeries(Long carId, Granularity granularity, LocalDate startDate, LocalDate endDate,
+                               Integer numberOfCars, List<OccupancyBucket> buckets) {
+        this.carId = carId;
+        this.granularity = granularity;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.numberOfCars = numberOfCars;
+        this.buckets = buckets;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getNumberOfCars() {
+        return numberOfCars;
+    }
+
+    public void setNumberOfCars(Integer numberOfCars) {
+        this.numberOfCars = numberOfCars;
+    }
+
+    public List<OccupancyBucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<OccupancyBucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    /**
+     * Taille des intervalles. Les semaines commencent le lundi (ISO), les mois le premier du mois ;
+     * le premier et le dernier intervalle sont tronqués aux bornes de la période.
+     */
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH;
+
+        /**
+         * Début de l'intervalle qui suit celui contenant {@code date}.
+         */
+        public LocalDate nextBucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date.plusDays(1);
+                case WEEK -> date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+                case MONTH -> date.with(TemporalAdjusters.firstDayOfNextMonth());
+            };
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class Rental {
     private LocalDate startDate;
     private LocalDate endDate;
     private String status;
+    private Double totalAmount;
 
     public Rental() {
     }
@@ -63,5 +64,12 @@ public class Rental {
     public void setStatus(String status) {
         this.status = status;
     }
-}
 
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,66 @@
+package com.carrental.analyticsservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO représentant le chiffre d'affaires de la flotte sur un intervalle (jour, semaine ou mois) d'un rapport.
+ */
+public class RevenueBucket {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long totalDays;
+    private Double revenue;
+    private Double revenuePerAvailableDay;
+
+    public RevenueBucket() {
+    }
+
+    public RevenueBucket(LocalDate startDate, LocalDate endDate, Long totalDays, Double revenue,
+                         Double revenuePerAvailableDay) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalDays = totalDays;
+        this.revenue = revenue;
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getTotalDays() {
+        return totalDays;
+    }
+
+    public void setTotalDays(Long totalDays) {
+        this.totalDays = totalDays;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(Double revenue) {
+        this.revenue = revenue;
+    }
+
+    public Double getRevenuePerAvailableDay() {
+        return revenuePerAvailableDay;
+    }
+
+    public void setRevenuePerAvailableDay(Double revenuePerAvailableDay) {
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+}
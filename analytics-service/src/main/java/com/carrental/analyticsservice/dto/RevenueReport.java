@@ -0,0 +1,110 @@
+package com.carrental.analyticsservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO représentant le chiffre d'affaires de toute la flotte sur une période, découpé en intervalles.
+ * Le chiffre d'affaires d'une location est réparti également entre ses jours : seuls les jours compris dans la
+ * période comptent. {@code revenuePerAvailableDay} (RevPAC) est rapporté à {@code availableCarDays}.
+ */
+public class RevenueReport {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private OccupancyTimeSeries.Granularity granularity;
+    private Integer numberOfCars;
+    private Long availableCarDays;
+    private Double totalRevenue;
+    private Integer numberOfRentals;
+    private Double revenuePerAvailableDay;
+    private List<RevenueBucket> buckets;
+
+    public RevenueReport() {
+    }
+
+    public RevenueReport(LocalDate startDate, LocalDate endDate, OccupancyTimeSeries.Granularity granularity,
+                         Integer numberOfCars, Long availableCarDays, Double totalRevenue, Integer numberOfRentals,
+                         Double revenuePerAvailableDay, List<RevenueBucket> buckets) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.granularity = granularity;
+        this.numberOfCars = numberOfCars;
+        this.availableCarDays = availableCarDays;
+        this.totalRevenue = totalRevenue;
+        this.numberOfRentals = numberOfRentals;
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+        this.buckets = buckets;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public OccupancyTimeSeries.Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(OccupancyTimeSeries.Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Integer getNumberOfCars() {
+        return numberOfCars;
+    }
+
+    public void setNumberOfCars(Integer numberOfCars) {
+        this.numberOfCars = numberOfCars;
+    }
+
+    public Long getAvailableCarDays() {
+        return availableCarDays;
+    }
+
+    public void setAvailableCarDays(Long availableCarDays) {
+        this.availableCarDays = availableCarDays;
+    }
+
+    public Double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(Double totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public Integer getNumberOfRentals() {
+        return numberOfRentals;
+    }
+
+    public void setNumberOfRentals(Integer numberOfRentals) {
+        this.numberOfRentals = numberOfRentals;
+    }
+
+    public Double getRevenuePerAvailableDay() {
+        return revenuePerAvailableDay;
+    }
+
+    public void setRevenuePerAvailableDay(Double revenuePerAvailableDay) {
+        this.revenuePerAvailableDay = revenuePerAvailableDay;
+    }
+
+    public List<RevenueBucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<RevenueBucket> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -3,30 +3,100 @@ package com.carrental.analyticsservice.service;
 import com.carrental.analyticsservice.client.CarServiceClient;
 import com.carrental.analyticsservice.client.RentalServiceClient;
 import com.carrental.analyticsservice.dto.*;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de calcul des analyses d'occupation des voitures.
  * Calcule les taux d'occupation en fonction des données de location du service de location et des données de voiture du service de voiture.
+ *
+ * <p>Les appels à car-service et rental-service d'un même calcul sont lancés en parallèle sur {@code fetchExecutor} :
+ * la latence est celle de l'appel le plus lent, pas leur somme. Chaque appel est limité à
+ * {@code analytics.fetch.timeout} (504 au-delà) ; dès qu'un appel échoue, la requête échoue sans attendre l'autre.</p>
+ *
+ * <p>À partir de {@code analytics.occupancy.parallel.min-cars} voitures, le calcul des taux d'occupation est découpé
+ * sur {@code computePool}, un pool fork-join dédié : construction des colonnes et comptage par tranches de locations,
+ * taux par tranches de voitures. En dessous, ou avec 0, il reste sur le thread de la requête.</p>
  */
 @Service
 public class AnalyticsService {
 
+    /**
+     * Nombre maximal de voitures d'une requête multi-voitures.
+     */
+    public static final int MAX_CARS_PER_REQUEST = 1000;
+
+    /**
+     * Voitures par appel groupé à car-service et rental-service.
+     */
+    static final int CARS_PER_FETCH = 50;
+
+    /**
+     * Nombre maximal d'intervalles d'une série temporelle (un peu plus de deux ans et demi de jours).
+     */
+    public static final int MAX_TIME_SERIES_BUCKETS = 1000;
+
+    /**
+     * Nombre maximal de voitures d'un classement par chiffre d'affaires.
+     */
+    public static final int MAX_TOP_CARS = 100;
+
+    /**
+     * Nombre maximal de jours d'une période d'analyse (cent ans).
+     */
+    public static final int MAX_PERIOD_DAYS = 36_600;
+
+    /**
+     * Dates acceptées pour une période : années ISO à quatre chiffres.
+     */
+    static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
     private final CarServiceClient carServiceClient;
     private final RentalServiceClient rentalServiceClient;
-
-    public AnalyticsService(CarServiceClient carServiceClient, RentalServiceClient rentalServiceClient) {
+    private final Executor fetchExecutor;
+    private final Duration fetchTimeout;
+    private final ForkJoinPool computePool;
+    private final int parallelMinCars;
+
+    public AnalyticsService(CarServiceClient carServiceClient,
+                            RentalServiceClient rentalServiceClient,
+                            @Qualifier("downstreamFetchExecutor") Executor fetchExecutor,
+                            @Value("${analytics.fetch.timeout:10s}") Duration fetchTimeout,
+                            @Qualifier("occupancyComputePool") ForkJoinPool computePool,
+                            @Value("${analytics.occupancy.parallel.min-cars:10000}") int parallelMinCars) {
         this.carServiceClient = carServiceClient;
         this.rentalServiceClient = rentalServiceClient;
+        this.fetchExecutor = fetchExecutor;
+        this.fetchTimeout = fetchTimeout;
+        this.computePool = computePool;
+        this.parallelMinCars = parallelMinCars;
     }
 
     /**
@@ -38,126 +108,295 @@ public class AnalyticsService {
      * @return List of occupancy rates for all cars
      */
     public List<OccupancyRate> calculateOccupancyRates(LocalDate startDate, LocalDate endDate) {
-        // Définir la période par défaut aux 30 derniers jours si non fournie
-        if (endDate == null) {
-            endDate = LocalDate.now();
-        }
-        if (startDate == null) {
-            startDate = endDate.minusDays(30);
-        }
+        Period period = Period.of(startDate, endDate);
 
-        if (startDate.isAfter(endDate)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                "Start date must be before or equal to end date");
-        }
+        // Récupérer toutes les voitures et toutes les locations en parallèle
+        CompletableFuture<List<Car>> carsFetch = fetchAllCars();
+        CompletableFuture<List<Rental>> rentalsFetch = fetchAllRentals();
+        awaitAll(carsFetch, rentalsFetch);
 
-        long totalDaysInPeriod = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        // Calculer l'occupation de toutes les voitures en un seul passage sur les locations
+        return occupancyRates(carsFetch.join(), rentalsFetch.join(), period);
+    }
 
-        // Récupérer toutes les voitures
-        ResponseEntity<List<Car>> carsResponse = carServiceClient.getAllCars();
-        if (carsResponse.getStatusCode() != HttpStatus.OK || carsResponse.getBody() == null) {
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
-                "Unable to fetch cars from car-service");
-        }
+    /**
+     * Calculer le taux d'occupation pour une voiture spécifique.
+     * 
+     * @param carId Car ID
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Occupancy rate for the specified car
+     */
+    public OccupancyRate calculateOccupancyRateForCar(Long carId, LocalDate startDate, LocalDate endDate) {
+        Period period = Period.of(startDate, endDate);
 
-        List<Car> cars = carsResponse.getBody();
+        // Récupérer la voiture et ses locations en parallèle
+        CompletableFuture<Car> carFetch = fetchCar(carId);
+        CompletableFuture<List<Rental>> rentalsFetch = fetchRentalsForCar(carId);
+        awaitAll(carFetch, rentalsFetch);
 
-        // Récupérer toutes les locations
-        ResponseEntity<List<Rental>> rentalsResponse = rentalServiceClient.getAllRentals();
-        if (rentalsResponse.getStatusCode() != HttpStatus.OK || rentalsResponse.getBody() == null) {
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
-                "Unable to fetch rentals from rental-service");
-        }
+        Car car = carFetch.join();
+        List<Rental> carRentals = rentalsFetch.join().stream()
+            .filter(AnalyticsService::isOccupying)
+            .collect(Collectors.toList());
 
-        List<Rental> allRentals = rentalsResponse.getBody();
+        return occupancyRate(car, carRentals, period);
+    }
 
-        // Calculer l'occupation pour chaque voiture
-        List<OccupancyRate> occupancyRates = new ArrayList<>();
+    /**
+     * Calculer les taux d'occupation d'une liste de voitures, en flux.
+     *
+     * <p>Les voitures sont traitées par lots de {@value #CARS_PER_FETCH} : pour chaque lot, un seul appel à
+     * car-service et un seul à rental-service, tous les lots en parallèle. Le flux renvoie les taux de chaque lot
+     * dès qu'il est calculé, dans l'ordre de fin des lots ; les ID inconnus de car-service sont ignorés. Les
+     * paramètres sont vérifiés immédiatement, les erreurs des appels sont levées pendant le parcours du flux.
+     * Fermer le flux abandonne les lots restants.</p>
+     *
+     * @param carIds Car IDs (at most {@value #MAX_CARS_PER_REQUEST}, duplicates are ignored)
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Occupancy rates, one list per batch of cars
+     */
+    public Stream<List<OccupancyRate>> streamOccupancyRatesForCars(Collection<Long> carIds,
+                                                                  LocalDate startDate, LocalDate endDate) {
+        Period period = Period.of(startDate, endDate);
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(carIds));
+        if (ids.isEmpty() || ids.size() > MAX_CARS_PER_REQUEST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Between 1 and " + MAX_CARS_PER_REQUEST + " car ids are required");
+        }
 
-        for (Car car : cars) {
-            // Filtrer les locations pour cette voiture qui sont actives ou terminées
-            List<Rental> carRentals = allRentals.stream()
-                .filter(r -> r.getCarId().equals(car.getId()))
-                .filter(r -> "ACTIVE".equalsIgnoreCase(r.getStatus()) || 
-                            "COMPLETED".equalsIgnoreCase(r.getStatus()))
-                .collect(Collectors.toList());
+        BlockingQueue<CompletableFuture<List<OccupancyRate>>> completed = new LinkedBlockingQueue<>();
+        List<CompletableFuture<List<OccupancyRate>>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CARS_PER_FETCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + CARS_PER_FETCH, ids.size()));
+            CompletableFuture<List<Car>> carsFetch = fetch("car-service", () -> {
+                ResponseEntity<List<Car>> carsResponse = carServiceClient.getCarsByIds(batch);
+                if (carsResponse.getStatusCode() != HttpStatus.OK || carsResponse.getBody() == null) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Unable to fetch cars from car-service");
+                }
+                return carsResponse.getBody();
+            });
+            CompletableFuture<List<Rental>> rentalsFetch = fetch("rental-service", () -> {
+                ResponseEntity<List<Rental>> rentalsResponse = rentalServiceClient.getRentalsByCarIds(batch);
+                if (rentalsResponse.getStatusCode() != HttpStatus.OK || rentalsResponse.getBody() == null) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Unable to fetch rentals from rental-service");
+                }
+                return rentalsResponse.getBody();
+            });
+            // Le calcul du lot se fait sur le thread du dernier appel terminé
+            CompletableFuture<List<OccupancyRate>> rates = carsFetch.thenCombine(rentalsFetch,
+                (cars, rentals) -> occupancyRates(cars, rentals, period));
+            rates.whenComplete((result, failure) -> completed.add(rates));
+            batches.add(rates);
+        }
 
-            // Calculer les jours loués dans la période
-            long rentedDays = calculateRentedDays(carRentals, startDate, endDate);
+        return Stream.generate(() -> nextCompleted(completed))
+            .limit(batches.size())
+            .onClose(() -> batches.forEach(batch -> batch.cancel(false)));
+    }
 
-            // Calculer le pourcentage d'occupation
-            double occupancyPercentage = totalDaysInPeriod > 0 
-                ? (double) rentedDays / totalDaysInPeriod * 100.0 
-                : 0.0;
+    /**
+     * Calculer l'occupation d'une voiture, ou de toute la flotte, par jour, semaine ou mois.
+     *
+     * <p>Les données sont récupérées une seule fois pour toute la période, puis tous les intervalles sont calculés
+     * en un seul balayage des locations ({@link OccupancySweep}). Pour la flotte, l'occupation d'un intervalle est
+     * le nombre de jours-voiture loués rapporté au nombre de jours multiplié par le nombre de voitures.</p>
+     *
+     * @param carId Car ID, or {@code null} for the whole fleet
+     * @param granularity Bucket size
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Occupancy per bucket, in chronological order
+     */
+    public OccupancyTimeSeries calculateOccupancyTimeSeries(Long carId, OccupancyTimeSeries.Granularity granularity,
+                                                            LocalDate startDate, LocalDate endDate) {
+        Period period = Period.of(startDate, endDate);
+        LocalDate[] starts = bucketStarts(period, granularity);
+
+        int numberOfCars;
+        CarIndex cars;
+        RentalColumns rentals;
+        if (carId != null) {
+            CompletableFuture<Car> carFetch = fetchCar(carId);
+            CompletableFuture<List<Rental>> rentalsFetch = fetchRentalsForCar(carId);
+            awaitAll(carFetch, rentalsFetch);
+
+            numberOfCars = 1;
+            cars = CarIndex.of(carId);
+            rentals = RentalColumns.of(rentalsFetch.join());
+        } else {
+            CompletableFuture<List<Car>> carsFetch = fetchAllCars();
+            CompletableFuture<List<Rental>> rentalsFetch = fetchAllRentals();
+            awaitAll(carsFetch, rentalsFetch);
+
+            // Seules les locations des voitures connues de car-service comptent, comme pour les taux d'occupation
+            numberOfCars = carsFetch.join().size();
+            cars = CarIndex.of(carsFetch.join());
+            rentals = RentalColumns.of(rentalsFetch.join());
+        }
 
-            OccupancyRate occupancyRate = new OccupancyRate(
-                car.getId(),
-                car.getBrand(),
-                car.getModel(),
-                car.getYear(),
-                totalDaysInPeriod,
-                rentedDays,
-                Math.round(occupancyPercentage * 100.0) / 100.0, // Round to 2 decimal places
-                carRentals.size()
-            );
-
-            occupancyRates.add(occupancyRate);
+        long[] rentedDays = OccupancySweep.rentedCarDays(rentals, cars, starts, period.endDate());
+        List<OccupancyBucket> buckets = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            LocalDate bucketEnd = i + 1 < starts.length ? starts[i + 1].minusDays(1) : period.endDate();
+            long totalDays = ChronoUnit.DAYS.between(starts[i], bucketEnd) + 1;
+            double occupancyPercentage = numberOfCars > 0
+                ? (double) rentedDays[i] / (totalDays * numberOfCars) * 100.0
+                : 0.0;
+            buckets.add(new OccupancyBucket(starts[i], bucketEnd, totalDays, rentedDays[i],
+                Math.round(occupancyPercentage * 100.0) / 100.0));
         }
+        return new OccupancyTimeSeries(carId, granularity, period.startDate(), period.endDate(), numberOfCars, buckets);
+    }
 
-        return occupancyRates;
+    /**
+     * Calculer le chiffre d'affaires de la flotte sur une période, au total et par intervalle, avec le chiffre
+     * d'affaires par jour-voiture disponible (RevPAC).
+     *
+     * <p>Le chiffre d'affaires d'une location ({@code totalAmount}) est réparti également entre ses jours : une
+     * location à cheval sur deux mois compte dans chacun pour ses jours. Seules les locations actives ou terminées
+     * comptent.</p>
+     *
+     * @param granularity Bucket size
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Fleet revenue for the period and per bucket
+     */
+    public RevenueReport calculateRevenue(OccupancyTimeSeries.Granularity granularity,
+                                          LocalDate startDate, LocalDate endDate) {
+        Period period = Period.of(startDate, endDate);
+        LocalDate[] starts = bucketStarts(period, granularity);
+        RevenueAggregation revenue = aggregateRevenue(period, true);
+
+        long availableCarDays = revenue.numberOfCars() * period.days();
+        double perAvailableDay = availableCarDays > 0 ? revenue.totalRevenue() / availableCarDays : 0.0;
+        return new RevenueReport(period.startDate(), period.endDate(), granularity, revenue.numberOfCars(),
+            availableCarDays, RevenueAggregation.round(revenue.totalRevenue()), revenue.totalRentals(),
+            RevenueAggregation.round(perAvailableDay), revenue.byBucket(starts));
     }
 
     /**
-     * Calculer le taux d'occupation pour une voiture spécifique.
-     * 
-     * @param carId Car ID
+     * Calculer le chiffre d'affaires de chaque voiture sur une période.
+     *
      * @param startDate Start date of the period (optional)
      * @param endDate End date of the period (optional)
-     * @return Occupancy rate for the specified car
+     * @return Revenue of every car
      */
-    public OccupancyRate calculateOccupancyRateForCar(Long carId, LocalDate startDate, LocalDate endDate) {
-        // Définir la période par défaut aux 30 derniers jours si non fournie
-        if (endDate == null) {
-            endDate = LocalDate.now();
-        }
-        if (startDate == null) {
-            startDate = endDate.minusDays(30);
-        }
+    public List<CarRevenue> calculateRevenueByCar(LocalDate startDate, LocalDate endDate) {
+        return aggregateRevenue(Period.of(startDate, endDate), false).byCar();
+    }
 
-        if (startDate.isAfter(endDate)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                "Start date must be before or equal to end date");
+    /**
+     * Calculer les voitures au plus fort chiffre d'affaires sur une période.
+     *
+     * @param limit Number of cars (1 to {@value #MAX_TOP_CARS})
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return The {@code limit} cars with the highest revenue, highest first
+     */
+    public List<CarRevenue> calculateTopCarsByRevenue(int limit, LocalDate startDate, LocalDate endDate) {
+        if (limit < 1 || limit > MAX_TOP_CARS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Limit must be between 1 and " + MAX_TOP_CARS);
         }
+        return aggregateRevenue(Period.of(startDate, endDate), false).topCars(limit);
+    }
 
-        long totalDaysInPeriod = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    /**
+     * Calculer le chiffre d'affaires par marque sur une période.
+     *
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Revenue per brand, highest first
+     */
+    public List<BrandRevenue> calculateRevenueByBrand(LocalDate startDate, LocalDate endDate) {
+        return aggregateRevenue(Period.of(startDate, endDate), false).byBrand();
+    }
 
-        // Récupérer la voiture
-        ResponseEntity<Car> carResponse = carServiceClient.getCarById(carId);
-        if (carResponse.getStatusCode() != HttpStatus.OK || carResponse.getBody() == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                "Car not found with ID: " + carId);
-        }
+    /**
+     * Récupérer toutes les voitures et toutes les locations en parallèle, puis agréger le chiffre d'affaires en un
+     * seul passage sur les colonnes des locations. Le chiffre d'affaires par jour n'est gardé que pour les
+     * intervalles ({@code byDay}).
+     */
+    private RevenueAggregation aggregateRevenue(Period period, boolean byDay) {
+        CompletableFuture<List<Car>> carsFetch = fetchAllCars();
+        CompletableFuture<List<Rental>> rentalsFetch = fetchAllRentals();
+        awaitAll(carsFetch, rentalsFetch);
+
+        RevenueAggregation revenue = new RevenueAggregation(carsFetch.join(), period.startDate(), period.endDate(),
+            byDay);
+        revenue.add(RentalColumns.of(rentalsFetch.join()));
+        return revenue;
+    }
 
-        Car car = carResponse.getBody();
+    /**
+     * Premier jour de chaque intervalle de la période, au plus {@value #MAX_TIME_SERIES_BUCKETS}.
+     */
+    private static LocalDate[] bucketStarts(Period period, OccupancyTimeSeries.Granularity granularity) {
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        for (LocalDate day = period.startDate(); !day.isAfter(period.endDate());
+             day = granularity.nextBucketStart(day)) {
+            if (bucketStarts.size() == MAX_TIME_SERIES_BUCKETS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_TIME_SERIES_BUCKETS + " buckets are allowed, use a larger granularity");
+            }
+            bucketStarts.add(day);
+        }
+        return bucketStarts.toArray(new LocalDate[0]);
+    }
 
-        // Récupérer les locations pour cette voiture
-        ResponseEntity<List<Rental>> rentalsResponse = rentalServiceClient.getRentalsByCarId(carId);
-        if (rentalsResponse.getStatusCode() != HttpStatus.OK || rentalsResponse.getBody() == null) {
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
-                "Unable to fetch rentals from rental-service");
+    /**
+     * Taux d'occupation de plusieurs voitures, à partir de toutes les locations de ces voitures : les locations sont
+     * rangées en colonnes ({@link RentalColumns}) puis comptées par voiture en un seul passage, en parallèle sur
+     * {@code computePool} pour les grandes flottes.
+     */
+    private List<OccupancyRate> occupancyRates(List<Car> cars, List<Rental> rentals, Period period) {
+        boolean parallel = parallelMinCars > 0 && cars.size() >= parallelMinCars;
+        CarIndex carIndex = CarIndex.of(cars);
+        long[] rentedDays = new long[cars.size()];
+        int[] numberOfRentals = new int[cars.size()];
+        int startDay = (int) period.startDate().toEpochDay();
+        int endDay = (int) period.endDate().toEpochDay();
+        if (parallel) {
+            RentalColumns.of(rentals, computePool)
+                .countOccupancy(carIndex, startDay, endDay, rentedDays, numberOfRentals, computePool);
+        } else {
+            RentalColumns.of(rentals).countOccupancy(carIndex, startDay, endDay, rentedDays, numberOfRentals);
         }
 
-        List<Rental> carRentals = rentalsResponse.getBody().stream()
-            .filter(r -> "ACTIVE".equalsIgnoreCase(r.getStatus()) || 
-                        "COMPLETED".equalsIgnoreCase(r.getStatus()))
-            .collect(Collectors.toList());
+        OccupancyRate[] occupancyRates = new OccupancyRate[cars.size()];
+        ParallelScan.Chunk fill = (chunk, from, to) -> {
+            for (int i = from; i < to; i++) {
+                // Plafonner au nombre total de jours dans la période (gère les locations chevauchantes)
+                occupancyRates[i] = occupancyRate(cars.get(i), Math.min(rentedDays[i], period.days()),
+                    numberOfRentals[i], period);
+            }
+        };
+        if (parallel) {
+            ParallelScan.forEachChunk(computePool, cars.size(), fill);
+        } else {
+            fill.run(0, 0, cars.size());
+        }
+        return Arrays.asList(occupancyRates);
+    }
 
+    /**
+     * Taux d'occupation d'une voiture à partir de ses locations actives ou terminées.
+     */
+    private OccupancyRate occupancyRate(Car car, List<Rental> carRentals, Period period) {
         // Calculer les jours loués dans la période
-        long rentedDays = calculateRentedDays(carRentals, startDate, endDate);
+        long rentedDays = calculateRentedDays(carRentals, period.startDate(), period.endDate());
+        return occupancyRate(car, rentedDays, carRentals.size(), period);
+    }
 
+    private OccupancyRate occupancyRate(Car car, long rentedDays, int numberOfRentals, Period period) {
         // Calculer le pourcentage d'occupation
-        double occupancyPercentage = totalDaysInPeriod > 0 
-            ? (double) rentedDays / totalDaysInPeriod * 100.0 
+        long totalDaysInPeriod = period.days();
+        double occupancyPercentage = totalDaysInPeriod > 0
+            ? (double) rentedDays / totalDaysInPeriod * 100.0
             : 0.0;
 
         return new OccupancyRate(
@@ -168,14 +407,186 @@ public class AnalyticsService {
             totalDaysInPeriod,
             rentedDays,
             Math.round(occupancyPercentage * 100.0) / 100.0, // Round to 2 decimal places
-            carRentals.size()
+            numberOfRentals
         );
     }
 
+    /**
+     * Seules les locations actives ou terminées comptent dans l'occupation.
+     */
+    private static boolean isOccupying(Rental rental) {
+        return "ACTIVE".equalsIgnoreCase(rental.getStatus()) || "COMPLETED".equalsIgnoreCase(rental.getStatus());
+    }
+
+    /**
+     * Attendre le prochain lot terminé et renvoyer ses taux, ou lever l'erreur de ses appels.
+     */
+    private static List<OccupancyRate> nextCompleted(BlockingQueue<CompletableFuture<List<OccupancyRate>>> completed) {
+        try {
+            return completed.take().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while computing occupancy");
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResponseStatusException statusException) {
+                throw statusException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lancer la récupération d'une voiture de car-service ; une voiture inconnue donne 404.
+     */
+    private CompletableFuture<Car> fetchCar(Long carId) {
+        return fetch("car-service", () -> {
+            ResponseEntity<Car> carResponse;
+            try {
+                carResponse = carServiceClient.getCarById(carId);
+            } catch (FeignException.NotFound e) {
+                carResponse = ResponseEntity.notFound().build();
+            }
+            if (carResponse.getStatusCode() != HttpStatus.OK || carResponse.getBody() == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Car not found with ID: " + carId);
+            }
+            return carResponse.getBody();
+        });
+    }
+
+    /**
+     * Lancer la récupération des locations d'une voiture de rental-service.
+     */
+    private CompletableFuture<List<Rental>> fetchRentalsForCar(Long carId) {
+        return fetch("rental-service", () -> {
+            ResponseEntity<List<Rental>> rentalsResponse = rentalServiceClient.getRentalsByCarId(carId);
+            if (rentalsResponse.getStatusCode() != HttpStatus.OK || rentalsResponse.getBody() == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Unable to fetch rentals from rental-service");
+            }
+            return rentalsResponse.getBody();
+        });
+    }
+
+    /**
+     * Lancer la récupération de toutes les voitures de car-service.
+     */
+    private CompletableFuture<List<Car>> fetchAllCars() {
+        return fetch("car-service", () -> {
+            ResponseEntity<List<Car>> carsResponse = carServiceClient.getAllCars();
+            if (carsResponse.getStatusCode() != HttpStatus.OK || carsResponse.getBody() == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Unable to fetch cars from car-service");
+            }
+            return carsResponse.getBody();
+        });
+    }
+
+    /**
+     * Lancer la récupération de toutes les locations de rental-service.
+     */
+    private CompletableFuture<List<Rental>> fetchAllRentals() {
+        return fetch("rental-service", () -> {
+            ResponseEntity<List<Rental>> rentalsResponse = rentalServiceClient.getAllRentals();
+            if (rentalsResponse.getStatusCode() != HttpStatus.OK || rentalsResponse.getBody() == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Unable to fetch rentals from rental-service");
+            }
+            return rentalsResponse.getBody();
+        });
+    }
+
+    /**
+     * Lancer un appel à un service sur {@code fetchExecutor}, limité à {@code fetchTimeout}.
+     * Les échecs sont convertis en {@link ResponseStatusException} : 504 si le délai est dépassé, 503 sinon ;
+     * une {@link ResponseStatusException} levée par l'appel est conservée.
+     */
+    private <T> CompletableFuture<T> fetch(String service, Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, fetchExecutor)
+            .orTimeout(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .exceptionally(failure -> {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+                if (cause instanceof ResponseStatusException statusException) {
+                    throw statusException;
+                }
+                if (cause instanceof TimeoutException) {
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        service + " did not answer within " + fetchTimeout.toMillis() + " ms");
+                }
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Unable to fetch data from " + service + ": " + cause.getMessage(), cause);
+            });
+    }
+
+    /**
+     * Attendre la fin de tous les appels, ou le premier échec : les autres appels sont alors abandonnés et l'erreur
+     * de l'appel en échec est levée.
+     */
+    private static void awaitAll(CompletableFuture<?>... fetches) {
+        CompletableFuture<Object> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> fetch : fetches) {
+            fetch.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    firstFailure.completeExceptionally(failure);
+                }
+            });
+        }
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(fetches), firstFailure).join();
+        } catch (CompletionException | CancellationException e) {
+            for (CompletableFuture<?> fetch : fetches) {
+                fetch.cancel(false);
+            }
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ResponseStatusException statusException) {
+                throw statusException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Période d'analyse : les 30 derniers jours par défaut, bornes incluses, au plus {@value #MAX_PERIOD_DAYS} jours
+     * entre {@link #MIN_DATE} et {@link #MAX_DATE}. Les agrégations indexent les jours de la période par des
+     * {@code int} : ces bornes évitent les débordements et les tableaux démesurés.
+     */
+    private record Period(LocalDate startDate, LocalDate endDate) {
+
+        static Period of(LocalDate startDate, LocalDate endDate) {
+            // Définir la période par défaut aux 30 derniers jours si non fournie
+            if (endDate == null) {
+                endDate = LocalDate.now();
+            }
+            if (startDate == null) {
+                startDate = endDate.minusDays(30);
+            }
+            if (startDate.isAfter(endDate)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Start date must be before or equal to end date");
+            }
+            if (startDate.isBefore(MIN_DATE) || endDate.isAfter(MAX_DATE)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Dates must be between " + MIN_DATE + " and " + MAX_DATE);
+            }
+            if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_PERIOD_DAYS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The period must not exceed " + MAX_PERIOD_DAYS + " days");
+            }
+            return new Period(startDate, endDate);
+        }
+
+        long days() {
+            return ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        }
+    }
+
     /**
      * Calculer le nombre total de jours loués pour une liste de locations dans une plage de dates.
+     * Visibilité package et non privée : AnalyticsServiceBenchmark (module benchmarks) mesure ce calcul seul ; par
+     * l'API publique, il serait noyé dans la lecture des voitures et des locations par HTTP.
      */
-    private long calculateRentedDays(List<Rental> rentals, LocalDate startDate, LocalDate endDate) {
+    long calculateRentedDays(List<Rental> rentals, LocalDate startDate, LocalDate endDate) {
         long totalRentedDays = 0;
 
         for (Rental rental : rentals) {
@@ -0,0 +1,99 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.DistinctClientsEstimate;
+import com.carrental.analyticsservice.dto.DistributionEstimate;
+import com.carrental.analyticsservice.dto.OccupancyEstimate;
+import com.carrental.analyticsservice.sketch.RentalSketches;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Service d'analyse approximative : répond à partir des sketches de tout l'historique des locations
+ * ({@link RentalSketches}), en temps constant quel que soit le nombre de locations, au prix d'une erreur bornée.
+ * Activé par {@code analytics.approximate.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "analytics.approximate.enabled", havingValue = "true")
+public class ApproximateAnalyticsService {
+
+    private final RentalSketches sketches;
+
+    public ApproximateAnalyticsService(RentalSketches sketches) {
+        this.sketches = sketches;
+    }
+
+    /**
+     * Estimer le nombre de clients distincts d'une voiture, d'une marque ou de toute la flotte.
+     *
+     * @param carId Car ID (optional)
+     * @param brand Brand (optional, ignored when a car ID is given)
+     * @return Estimated number of distinct clients with its bounds
+     */
+    public DistinctClientsEstimate estimateDistinctClients(Long carId, String brand) {
+        checkLoaded();
+        return sketches.distinctClients(carId, carId != null ? null : brand);
+    }
+
+    /**
+     * Estimer la distribution de la durée des locations (en jours) d'une marque ou de toute la flotte.
+     *
+     * @param brand Brand (optional)
+     * @return Estimated quantiles of the rental length
+     */
+    public DistributionEstimate estimateRentalLength(String brand) {
+        checkLoaded();
+        return sketches.rentalLength(brand);
+    }
+
+    /**
+     * Estimer la distribution du taux d'occupation mensuel des voitures (une valeur par voiture et par mois) sur les
+     * mois de la période. La période par défaut est l'année écoulée.
+     *
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @return Estimated quantiles of the monthly occupancy percentage
+     */
+    public DistributionEstimate estimateMonthlyOccupancy(LocalDate startDate, LocalDate endDate) {
+        checkLoaded();
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1).plusDays(1);
+        checkPeriod(start, end);
+        return sketches.monthlyOccupancy(YearMonth.from(start), YearMonth.from(end));
+    }
+
+    /**
+     * Estimer le taux d'occupation d'une marque ou de toute la flotte sur une période, avec un intervalle de
+     * confiance à 95 %. La période par défaut est l'année écoulée.
+     *
+     * @param startDate Start date of the period (optional)
+     * @param endDate End date of the period (optional)
+     * @param brand Brand (optional)
+     * @return Estimated occupancy with its bounds
+     */
+    public OccupancyEstimate estimateOccupancy(LocalDate startDate, LocalDate endDate, String brand) {
+        checkLoaded();
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1).plusDays(1);
+        checkPeriod(start, end);
+        return sketches.occupancy(start, end, brand);
+    }
+
+    private void checkLoaded() {
+        if (!sketches.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Rental sketches are still loading, retry later");
+        }
+    }
+
+    private static void checkPeriod(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Start date must be before or equal to end date");
+        }
+    }
+}
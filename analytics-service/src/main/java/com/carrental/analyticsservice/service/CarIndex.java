@@ -0,0 +1,99 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.Car;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Position de chaque ID de voiture dans une liste de voitures, sans boxing : une table directe quand les IDs sont
+ * denses (le cas courant avec des IDs générés), une recherche dichotomique dans les IDs triés sinon.
+ */
+final class CarIndex {
+
+    private static final int NOT_FOUND = -1;
+
+    private final int size;
+    private final long minId;
+    private final int[] dense;
+    private final long[] sortedIds;
+    private final int[] sortedPositions;
+
+    private CarIndex(int size, long[] ids, int[] positions) {
+        this.size = size;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long id : ids) {
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+        }
+        this.minId = min;
+        long range = max - min;
+        if (ids.length > 0 && range >= 0 && range < 4L * ids.length + 1024) {
+            dense = new int[(int) range + 1];
+            Arrays.fill(dense, NOT_FOUND);
+            for (int i = 0; i < ids.length; i++) {
+                dense[(int) (ids[i] - min)] = positions[i];
+            }
+            sortedIds = null;
+            sortedPositions = null;
+        } else {
+            dense = null;
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+            sortedIds = new long[ids.length];
+            sortedPositions = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedPositions[i] = positions[order[i]];
+            }
+        }
+    }
+
+    /**
+     * Index des voitures, par position dans la liste. Les voitures sans ID ne sont jamais trouvées.
+     */
+    static CarIndex of(List<Car> cars) {
+        long[] ids = new long[cars.size()];
+        int[] positions = new int[cars.size()];
+        int count = 0;
+        for (int i = 0; i < cars.size(); i++) {
+            Long id = cars.get(i).getId();
+            if (id != null) {
+                ids[count] = id;
+                positions[count] = i;
+                count++;
+            }
+        }
+        return new CarIndex(cars.size(), Arrays.copyOf(ids, count), Arrays.copyOf(positions, count));
+    }
+
+    /**
+     * Index d'une seule voiture, en position 0.
+     */
+    static CarIndex of(long carId) {
+        return new CarIndex(1, new long[] {carId}, new int[] {0});
+    }
+
+    /**
+     * Nombre de positions, voitures sans ID comprises.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Position de la voiture, ou -1 si elle n'est pas indexée. Pour un ID en double, l'une de ses positions.
+     */
+    int indexOf(long carId) {
+        if (dense != null) {
+            long offset = carId - minId;
+            return offset >= 0 && offset < dense.length ? dense[(int) offset] : NOT_FOUND;
+        }
+        int found = Arrays.binarySearch(sortedIds, carId);
+        return found >= 0 ? sortedPositions[found] : NOT_FOUND;
+    }
+}
@@ -0,0 +1,97 @@
+package com.carrental.analyticsservice.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Jours-voiture loués par intervalle, calculés en un seul balayage des locations.
+ *
+ * <p>Les locations sont tronquées à la période puis fusionnées par voiture : une voiture louée deux fois le même
+ * jour ne compte qu'une fois. Chaque location fusionnée donne un début (+1) et une fin (-1, le lendemain du dernier
+ * jour) ; débuts et fins sont triés, puis parcourus une seule fois avec les limites des intervalles. Entre deux
+ * événements, le nombre de voitures louées est constant et crédité à l'intervalle courant en une fois.
+ * Coût : O(L log L + B) pour L locations et B intervalles, quelle que soit la durée des locations.</p>
+ */
+final class OccupancySweep {
+
+    private OccupancySweep() {
+    }
+
+    /**
+     * @param rentals Rentals in columns; only the occupying rentals of the indexed cars are counted
+     * @param cars Cars to count
+     * @param bucketStarts First day of each bucket, ascending; the first one is the start of the period
+     * @param endDate Last day of the period (inclusive)
+     * @return Rented car-days per bucket
+     */
+    static long[] rentedCarDays(RentalColumns rentals, CarIndex cars, LocalDate[] bucketStarts, LocalDate endDate) {
+        int periodStart = (int) bucketStarts[0].toEpochDay();
+        int periodEnd = (int) endDate.toEpochDay();
+
+        // Locations tronquées à la période, une clé par location : voiture, premier jour, dernier jour (relatifs au
+        // début de la période, moins de 2^20 jours pour 1000 intervalles d'un mois) ; le tri des clés range les
+        // locations par voiture puis par début
+        long[] intervals = new long[rentals.size()];
+        int count = 0;
+        for (int row = 0; row < rentals.size(); row++) {
+            if ((RentalColumns.OCCUPYING >>> rentals.statuses[row] & 1) == 0) {
+                continue;
+            }
+            int car = cars.indexOf(rentals.carIds[row]);
+            int start = Math.max(rentals.startDays[row], periodStart) - periodStart;
+            int end = Math.min(rentals.endDays[row], periodEnd) - periodStart;
+            if (car >= 0 && start <= end) {
+                intervals[count++] = (long) car << 40 | (long) start << 20 | end;
+            }
+        }
+        Arrays.sort(intervals, 0, count);
+
+        // Fusion des locations chevauchantes ou contiguës d'une même voiture
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int merged = 0;
+        long previousCar = -1;
+        for (int i = 0; i < count; i++) {
+            long car = intervals[i] >>> 40;
+            long start = periodStart + (intervals[i] >>> 20 & 0xFFFFF);
+            long end = periodStart + (intervals[i] & 0xFFFFF);
+            if (merged > 0 && car == previousCar && start <= ends[merged - 1]) {
+                ends[merged - 1] = Math.max(ends[merged - 1], end + 1);
+            } else {
+                starts[merged] = start;
+                ends[merged] = end + 1;
+                merged++;
+            }
+            previousCar = car;
+        }
+        Arrays.sort(starts, 0, merged);
+        Arrays.sort(ends, 0, merged);
+
+        long[] rentedDays = new long[bucketStarts.length];
+        int bucket = 0;
+        long nextBucketStart = bucketStarts.length > 1 ? bucketStarts[1].toEpochDay() : periodEnd + 1;
+        long day = periodStart;
+        long active = 0;
+        int s = 0;
+        int e = 0;
+        while (day <= periodEnd) {
+            // Appliquer les événements du jour courant
+            while (s < merged && starts[s] <= day) {
+                active++;
+                s++;
+            }
+            while (e < merged && ends[e] <= day) {
+                active--;
+                e++;
+            }
+            long nextEvent = Math.min(s < merged ? starts[s] : Long.MAX_VALUE, e < merged ? ends[e] : Long.MAX_VALUE);
+            long until = Math.min(Math.min(nextEvent, nextBucketStart), periodEnd + 1);
+            rentedDays[bucket] += active * (until - day);
+            day = until;
+            if (day == nextBucketStart && ++bucket < bucketStarts.length) {
+                nextBucketStart = bucket + 1 < bucketStarts.length ? bucketStarts[bucket + 1].toEpochDay() : periodEnd + 1;
+            }
+        }
+        return rentedDays;
+    }
+}
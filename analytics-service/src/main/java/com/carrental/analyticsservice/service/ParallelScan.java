@@ -0,0 +1,59 @@
+package com.carrental.analyticsservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Découpage d'un parcours de lignes (locations ou voitures) en tranches contiguës exécutées sur un pool fork-join.
+ *
+ * <p>Une tranche par thread du pool au plus, et au moins {@link #MIN_CHUNK} lignes par tranche : un petit parcours
+ * reste sur le thread appelant. Chaque tranche écrit dans ses propres lignes ou dans ses propres tableaux, sans
+ * synchronisation. Une exception d'une tranche est relancée à l'appelant.</p>
+ */
+final class ParallelScan {
+
+    /**
+     * Lignes minimales d'une tranche : en dessous, le coût de la tâche dépasse celui du parcours.
+     */
+    static final int MIN_CHUNK = 4096;
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Nombre de tranches d'un parcours de {@code size} lignes.
+     */
+    static int chunks(ForkJoinPool pool, int size) {
+        return Math.max(1, Math.min(pool.getParallelism(), size / MIN_CHUNK));
+    }
+
+    /**
+     * Exécuter {@code task} sur {@link #chunks} tranches couvrant les lignes 0 à {@code size} (exclu), et attendre la
+     * fin de toutes.
+     */
+    static void forEachChunk(ForkJoinPool pool, int size, Chunk task) {
+        int chunks = chunks(pool, size);
+        if (chunks == 1) {
+            task.run(0, 0, size);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            int from = (int) ((long) size * chunk / chunks);
+            int to = (int) ((long) size * (chunk + 1) / chunks);
+            tasks.add(ForkJoinTask.adapt(() -> task.run(index, from, to)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Une tranche : lignes {@code from} (inclus) à {@code to} (exclu).
+     */
+    @FunctionalInterface
+    interface Chunk {
+        void run(int chunk, int from, int to);
+    }
+}
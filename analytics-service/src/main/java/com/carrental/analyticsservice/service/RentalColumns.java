@@ -0,0 +1,169 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.Rental;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Locations d'un calcul rangées par colonnes de primitives, pour des parcours en boucles serrées sans indirection.
+ *
+ * <p>Une ligne par location : ID voiture ({@code long}), premier et dernier jour en jours depuis l'époque
+ * ({@code int}), statut codé sur un {@code byte} et montant ({@code double}, NaN si absent). Soit 25 octets par
+ * location, contre plus de 200 pour un {@link Rental} et ses objets ({@code Long}, deux {@code LocalDate},
+ * {@code String}, {@code Double}).</p>
+ *
+ * <p>Les colonnes sont construites à partir des locations reçues de rental-service, en un seul passage (découpé sur
+ * un pool fork-join pour les grandes flottes, voir {@link ParallelScan}) ; la ligne {@code i} est la location
+ * {@code i} de la liste. Les noyaux
+ * (occupation, chiffre d'affaires, balayage) ne lisent ensuite plus que les tableaux. Aucun calcul ne lit les
+ * clients : ils ne sont pas copiés.</p>
+ */
+final class RentalColumns {
+
+    static final byte PENDING = 0;
+    static final byte ACTIVE = 1;
+    static final byte COMPLETED = 2;
+    static final byte CANCELLED = 3;
+    static final byte OTHER = 4;
+    /** Location sans voiture ou sans dates : aucun noyau ne la retient */
+    static final byte MISSING = 5;
+
+    /**
+     * Statuts qui comptent dans l'occupation et le chiffre d'affaires, en masque de bits.
+     */
+    static final int OCCUPYING = 1 << ACTIVE | 1 << COMPLETED;
+
+    private final int size;
+    final long[] carIds;
+    final int[] startDays;
+    final int[] endDays;
+    final byte[] statuses;
+    final double[] totalAmounts;
+
+    private RentalColumns(int size) {
+        this.size = size;
+        this.carIds = new long[size];
+        this.startDays = new int[size];
+        this.endDays = new int[size];
+        this.statuses = new byte[size];
+        this.totalAmounts = new double[size];
+    }
+
+    /**
+     * Ranger des locations en colonnes ; les locations sans voiture ou sans dates ont le statut {@link #MISSING}.
+     */
+    static RentalColumns of(List<Rental> rentals) {
+        RentalColumns columns = new RentalColumns(rentals.size());
+        int row = 0;
+        for (Rental rental : rentals) {
+            columns.set(row++, rental);
+        }
+        return columns;
+    }
+
+    /**
+     * Comme {@link #of(List)}, les lignes étant remplies par tranches sur {@code pool}.
+     */
+    static RentalColumns of(List<Rental> rentals, ForkJoinPool pool) {
+        List<Rental> rows = rentals instanceof RandomAccess ? rentals : List.copyOf(rentals);
+        RentalColumns columns = new RentalColumns(rows.size());
+        ParallelScan.forEachChunk(pool, rows.size(), (chunk, from, to) -> {
+            for (int row = from; row < to; row++) {
+                columns.set(row, rows.get(row));
+            }
+        });
+        return columns;
+    }
+
+    private void set(int row, Rental rental) {
+        if (rental.getCarId() == null || rental.getStartDate() == null || rental.getEndDate() == null) {
+            statuses[row] = MISSING;
+            return;
+        }
+        carIds[row] = rental.getCarId();
+        startDays[row] = (int) rental.getStartDate().toEpochDay();
+        endDays[row] = (int) rental.getEndDate().toEpochDay();
+        statuses[row] = status(rental.getStatus());
+        totalAmounts[row] = rental.getTotalAmount() != null ? rental.getTotalAmount() : Double.NaN;
+    }
+
+    /**
+     * Nombre de lignes.
+     */
+    int size() {
+        return size;
+    }
+
+    private static byte status(String status) {
+        if ("ACTIVE".equalsIgnoreCase(status)) {
+            return ACTIVE;
+        }
+        if ("COMPLETED".equalsIgnoreCase(status)) {
+            return COMPLETED;
+        }
+        if ("PENDING".equalsIgnoreCase(status)) {
+            return PENDING;
+        }
+        if ("CANCELLED".equalsIgnoreCase(status)) {
+            return CANCELLED;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Occupation par voiture en un seul passage : nombre de locations occupantes de chaque voiture de {@code cars}
+     * et jours de ces locations compris entre {@code startDay} et {@code endDay} (inclus). Les jours ne sont pas
+     * plafonnés ici.
+     */
+    void countOccupancy(CarIndex cars, int startDay, int endDay, long[] rentedDays, int[] rentals) {
+        countOccupancy(0, size, cars, startDay, endDay, rentedDays, rentals);
+    }
+
+    /**
+     * Comme {@link #countOccupancy(CarIndex, int, int, long[], int[])}, sur {@code pool} : chaque tranche de lignes
+     * compte dans ses propres tableaux, puis les tableaux sont additionnés par tranches de voitures.
+     */
+    void countOccupancy(CarIndex cars, int startDay, int endDay, long[] rentedDays, int[] rentals, ForkJoinPool pool) {
+        int chunks = ParallelScan.chunks(pool, size);
+        if (chunks == 1) {
+            countOccupancy(cars, startDay, endDay, rentedDays, rentals);
+            return;
+        }
+        long[][] chunkDays = new long[chunks][];
+        int[][] chunkRentals = new int[chunks][];
+        ParallelScan.forEachChunk(pool, size, (chunk, from, to) -> {
+            chunkDays[chunk] = new long[rentedDays.length];
+            chunkRentals[chunk] = new int[rentals.length];
+            countOccupancy(from, to, cars, startDay, endDay, chunkDays[chunk], chunkRentals[chunk]);
+        });
+        ParallelScan.forEachChunk(pool, rentedDays.length, (chunk, from, to) -> {
+            for (int i = 0; i < chunks; i++) {
+                for (int car = from; car < to; car++) {
+                    rentedDays[car] += chunkDays[i][car];
+                    rentals[car] += chunkRentals[i][car];
+                }
+            }
+        });
+    }
+
+    private void countOccupancy(int fromRow, int toRow, CarIndex cars, int startDay, int endDay, long[] rentedDays,
+                                int[] rentals) {
+        for (int row = fromRow; row < toRow; row++) {
+            if ((OCCUPYING >>> statuses[row] & 1) == 0) {
+                continue;
+            }
+            int car = cars.indexOf(carIds[row]);
+            if (car < 0) {
+                continue;
+            }
+            rentals[car]++;
+            int start = Math.max(startDays[row], startDay);
+            int end = Math.min(endDays[row], endDay);
+            if (start <= end) {
+                rentedDays[car] += end - start + 1;
+            }
+        }
+    }
+}
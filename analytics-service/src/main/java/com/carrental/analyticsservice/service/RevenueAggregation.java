@@ -0,0 +1,258 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.BrandRevenue;
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.CarRevenue;
+import com.carrental.analyticsservice.dto.RevenueBucket;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chiffre d'affaires d'une flotte sur une période, agrégé en un seul passage sur les locations.
+ *
+ * <p>Les locations sont lues en colonnes ({@link #add}) par une seule boucle sur les tableaux : chaque voiture a
+ * un indice dans des tableaux de primitives (chiffre d'affaires, jours loués, nombre de locations). Le chiffre
+ * d'affaires d'une location est réparti également entre ses jours ; seuls les jours compris dans la période
+ * comptent. Pour les intervalles ({@code byDay}), le montant journalier est ajouté au premier jour de la location et
+ * retiré le lendemain du dernier (tableau de différences, un élément par jour de la période) : un seul parcours des
+ * jours de la période suffit ensuite, quelle que soit la durée des locations. Seules les locations actives ou
+ * terminées des voitures connues sont comptées.</p>
+ */
+final class RevenueAggregation {
+
+    private final List<Car> cars;
+    private final CarIndex carIndex;
+    private final int periodStart;
+    private final int periodEnd;
+    private final double[] revenue;
+    private final long[] rentedDays;
+    private final int[] rentals;
+    private final double[] dailyRevenueDeltas;
+    private double totalRevenue;
+    private int totalRentals;
+
+    /**
+     * Agrégation vide de la flotte sur la période.
+     *
+     * @param byDay Whether the revenue is also kept per day, for {@link #byBucket}
+     */
+    RevenueAggregation(List<Car> cars, LocalDate startDate, LocalDate endDate, boolean byDay) {
+        this.cars = cars;
+        this.carIndex = CarIndex.of(cars);
+        this.periodStart = (int) startDate.toEpochDay();
+        this.periodEnd = (int) endDate.toEpochDay();
+        this.revenue = new double[cars.size()];
+        this.rentedDays = new long[cars.size()];
+        this.rentals = new int[cars.size()];
+        this.dailyRevenueDeltas = byDay ? new double[periodEnd - periodStart + 2] : null;
+    }
+
+    /**
+     * Ajouter les locations actives ou terminées des voitures connues.
+     */
+    void add(RentalColumns columns) {
+        int size = columns.size();
+        for (int row = 0; row < size; row++) {
+            if ((RentalColumns.OCCUPYING >>> columns.statuses[row] & 1) == 0) {
+                continue;
+            }
+            int car = carIndex.indexOf(columns.carIds[row]);
+            if (car < 0) {
+                continue;
+            }
+            int rentalStart = columns.startDays[row];
+            int rentalEnd = columns.endDays[row];
+            int start = Math.max(rentalStart, periodStart);
+            int end = Math.min(rentalEnd, periodEnd);
+            if (start > end) {
+                continue;
+            }
+            int days = end - start + 1;
+            double amount = columns.totalAmounts[row];
+            double dailyRevenue = Double.isNaN(amount) ? 0.0 : amount / (rentalEnd - rentalStart + 1);
+            double periodRevenue = dailyRevenue * days;
+
+            revenue[car] += periodRevenue;
+            rentedDays[car] += days;
+            rentals[car]++;
+            totalRevenue += periodRevenue;
+            totalRentals++;
+            if (dailyRevenueDeltas != null) {
+                dailyRevenueDeltas[start - periodStart] += dailyRevenue;
+                dailyRevenueDeltas[end + 1 - periodStart] -= dailyRevenue;
+            }
+        }
+    }
+
+    int numberOfCars() {
+        return cars.size();
+    }
+
+    long periodDays() {
+        return (long) periodEnd - periodStart + 1;
+    }
+
+    double totalRevenue() {
+        return totalRevenue;
+    }
+
+    int totalRentals() {
+        return totalRentals;
+    }
+
+    /**
+     * Chiffre d'affaires de chaque voiture, dans l'ordre des voitures reçues.
+     */
+    List<CarRevenue> byCar() {
+        List<CarRevenue> byCar = new ArrayList<>(cars.size());
+        for (int i = 0; i < cars.size(); i++) {
+            byCar.add(carRevenue(i));
+        }
+        return byCar;
+    }
+
+    /**
+     * Les {@code limit} voitures au plus fort chiffre d'affaires, par ordre décroissant ; à chiffre d'affaires égal,
+     * le plus petit ID d'abord, les voitures sans ID en dernier.
+     * Un tas de {@code limit} indices suffit : O(n log limit) sans trier toute la flotte.
+     */
+    List<CarRevenue> topCars(int limit) {
+        // Tas binaire d'indices de voitures, la moins bien classée à la racine
+        int[] heap = new int[Math.min(limit, cars.size())];
+        int size = 0;
+        for (int i = 0; i < cars.size(); i++) {
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++);
+            } else if (heap.length > 0 && compareRank(i, heap[0]) > 0) {
+                heap[0] = i;
+                siftDown(heap, size);
+            }
+        }
+        CarRevenue[] topCars = new CarRevenue[size];
+        while (size > 0) {
+            topCars[size - 1] = carRevenue(heap[0]);
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+        }
+        return List.of(topCars);
+    }
+
+    /**
+     * Classement de deux voitures : positif si {@code a} est mieux classée que {@code b}.
+     */
+    private int compareRank(int a, int b) {
+        int byRevenue = Double.compare(revenue[a], revenue[b]);
+        if (byRevenue != 0) {
+            return byRevenue;
+        }
+        Long idA = cars.get(a).getId();
+        Long idB = cars.get(b).getId();
+        if (idA == null || idB == null) {
+            return idA == null ? (idB == null ? 0 : -1) : 1;
+        }
+        return Long.compare(idB, idA);
+    }
+
+    private void siftUp(int[] heap, int node) {
+        while (node > 0) {
+            int parent = (node - 1) / 2;
+            if (compareRank(heap[node], heap[parent]) >= 0) {
+                return;
+            }
+            swap(heap, node, parent);
+            node = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int node = 0;
+        while (true) {
+            int lowest = node;
+            for (int child = 2 * node + 1; child <= 2 * node + 2 && child < size; child++) {
+                if (compareRank(heap[child], heap[lowest]) < 0) {
+                    lowest = child;
+                }
+            }
+            if (lowest == node) {
+                return;
+            }
+            swap(heap, node, lowest);
+            node = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int node = heap[i];
+        heap[i] = heap[j];
+        heap[j] = node;
+    }
+
+    /**
+     * Chiffre d'affaires par marque, par ordre décroissant.
+     */
+    List<BrandRevenue> byBrand() {
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        for (int i = 0; i < cars.size(); i++) {
+            // {nombre de voitures, chiffre d'affaires, nombre de locations}
+            double[] brand = totals.computeIfAbsent(cars.get(i).getBrand(), b -> new double[3]);
+            brand[0]++;
+            brand[1] += revenue[i];
+            brand[2] += rentals[i];
+        }
+        List<BrandRevenue> byBrand = new ArrayList<>(totals.size());
+        totals.forEach((brand, total) -> byBrand.add(new BrandRevenue(brand, (int) total[0], round(total[1]),
+            (int) total[2], round(total[1] / (total[0] * periodDays())))));
+        byBrand.sort(Comparator.comparingDouble(BrandRevenue::getRevenue).reversed());
+        return byBrand;
+    }
+
+    /**
+     * Chiffre d'affaires de la flotte par intervalle ; l'agrégation doit avoir été créée avec {@code byDay}.
+     *
+     * @param bucketStarts First day of each bucket, ascending; the first one is the start of the period
+     */
+    List<RevenueBucket> byBucket(LocalDate[] bucketStarts) {
+        if (dailyRevenueDeltas == null) {
+            throw new IllegalStateException("Revenue is not kept per day");
+        }
+        List<RevenueBucket> buckets = new ArrayList<>(bucketStarts.length);
+        double dailyRevenue = 0.0;
+        int day = 0;
+        for (int b = 0; b < bucketStarts.length; b++) {
+            LocalDate bucketEnd = b + 1 < bucketStarts.length
+                ? bucketStarts[b + 1].minusDays(1)
+                : LocalDate.ofEpochDay(periodEnd);
+            int lastDay = (int) bucketEnd.toEpochDay() - periodStart;
+            double bucketRevenue = 0.0;
+            for (; day <= lastDay; day++) {
+                dailyRevenue += dailyRevenueDeltas[day];
+                bucketRevenue += dailyRevenue;
+            }
+            long totalDays = ChronoUnit.DAYS.between(bucketStarts[b], bucketEnd) + 1;
+            double perAvailableDay = cars.isEmpty() ? 0.0 : bucketRevenue / (totalDays * cars.size());
+            buckets.add(new RevenueBucket(bucketStarts[b], bucketEnd, totalDays, round(bucketRevenue),
+                round(perAvailableDay)));
+        }
+        return buckets;
+    }
+
+    private CarRevenue carRevenue(int i) {
+        Car car = cars.get(i);
+        return new CarRevenue(car.getId(), car.getBrand(), car.getModel(), car.getYear(), round(revenue[i]),
+            rentedDays[i], rentals[i], round(revenue[i] / periodDays()));
+    }
+
+    /**
+     * Arrondi à 2 décimales.
+     */
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.client.CarServiceClient;
+import com.carrental.analyticsservice.client.RentalServiceClient;
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Alimente {@link RentalSketches} avec les locations créées depuis le dernier rafraîchissement.
+ *
+ * <p>Toutes les {@code analytics.approximate.refresh-interval}, la flotte est lue dans car-service, puis les
+ * locations sont lues page par page dans rental-service ({@code GET /api/rentals/feed}) à partir de
+ * {@link RentalSketches#readAfter()} : la fenêtre de relecture derrière le dernier ID lu, pour les locations validées
+ * en retard, puis les nouvelles. Le premier passage lit tout l'historique. Une location PENDING retient le curseur
+ * jusqu'au règlement de sa réservation (au plus {@code booking.saga.give-up-after} dans rental-service). Un
+ * rafraîchissement en échec est repris au passage suivant depuis le même curseur.</p>
+ *
+ * <p>Avec {@code analytics.approximate.snapshot.enabled}, les locations non encore lues de chaque page sont aussi
+ * ajoutées au {@link RentalSnapshot} avant d'être intégrées. Le premier passage rejoue alors le snapshot et ne lit
+ * que les locations créées depuis, une fois que rental-service a confirmé qu'il a toujours la dernière location du
+ * snapshot.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.approximate.enabled", havingValue = "true")
+public class RentalSketchRefresher implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalSketchRefresher.class);
+
+    static final int PAGE_SIZE = 1000;
+
+    private final RentalSketches sketches;
+    private final CarServiceClient carServiceClient;
+    private final RentalServiceClient rentalServiceClient;
+    private final RentalSnapshot snapshot;
+    private final Duration interval;
+    private boolean restored;
+
+    public RentalSketchRefresher(RentalSketches sketches,
+                                 CarServiceClient carServiceClient,
+                                 RentalServiceClient rentalServiceClient,
+                                 ObjectProvider<RentalSnapshot> snapshot,
+                                 @Value("${analytics.approximate.refresh-interval:1m}") Duration interval) {
+        this.sketches = sketches;
+        this.carServiceClient = carServiceClient;
+        this.rentalServiceClient = rentalServiceClient;
+        this.snapshot = snapshot.getIfAvailable();
+        this.interval = interval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(this::refresh, interval, Duration.ZERO));
+    }
+
+    /**
+     * Intégrer les locations créées depuis le dernier rafraîchissement.
+     */
+    void refresh() {
+        try {
+            List<Car> cars = carServiceClient.getAllCars().getBody();
+            if (cars != null) {
+                sketches.updateCars(cars);
+            }
+            if (snapshot != null && !restored) {
+                restore();
+            }
+            int pages = 0;
+            long before = sketches.lastRentalId();
+            long afterId = sketches.readAfter();
+            boolean complete;
+            do {
+                List<Rental> page = rentalServiceClient.getRentalsAfter(afterId, PAGE_SIZE).getBody();
+                if (page == null) {
+                    break;
+                }
+                pages++;
+                if (snapshot != null) {
+                    snapshot.append(sketches.unread(page));
+                }
+                complete = sketches.addAll(page) && page.size() == PAGE_SIZE;
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (complete);
+            if (!sketches.isLoaded()) {
+                sketches.markLoaded();
+                log.info("Rental sketches loaded up to rental {} ({} pages)", sketches.lastRentalId(), pages);
+            } else if (sketches.lastRentalId() != before) {
+                log.debug("Rental sketches updated up to rental {}", sketches.lastRentalId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rental sketches could not be refreshed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Intégrer le snapshot si rental-service a toujours sa dernière location, sinon le recommencer.
+     */
+    private void restore() {
+        if (snapshot.lastRentalId() > 0) {
+            List<Rental> last = rentalServiceClient.getRentalsAfter(snapshot.lastRentalId() - 1, 1).getBody();
+            if (last == null) {
+                return;
+            }
+            if (!last.isEmpty() && snapshot.matches(last.get(0))) {
+                long start = System.nanoTime();
+                sketches.addAll(snapshot);
+                log.info("Rental sketches restored from the snapshot up to rental {} ({} rentals in {} ms)",
+                    snapshot.lastRentalId(), snapshot.count(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                log.warn("Rental snapshot does not match rental-service (last rental {}), reading the whole history",
+                    snapshot.lastRentalId());
+                snapshot.clear();
+            }
+        }
+        restored = true;
+    }
+}
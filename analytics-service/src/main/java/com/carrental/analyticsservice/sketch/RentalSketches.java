@@ -0,0 +1,424 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.DistinctClientsEstimate;
+import com.carrental.analyticsservice.dto.DistributionEstimate;
+import com.carrental.analyticsservice.dto.OccupancyEstimate;
+import com.carrental.analyticsservice.dto.Rental;
+import org.apache.datasketches.hash.MurmurHash3;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.kll.KllDoublesSketch;
+import org.apache.datasketches.sampling.ReservoirItemsSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Sketches de tout l'historique des locations, mis à jour de façon incrémentale (voir {@link RentalSketchRefresher}).
+ *
+ * <ul>
+ *     <li>clients distincts : un HyperLogLog par voiture, par marque et pour la flotte</li>
+ *     <li>durée des locations : un sketch de quantiles KLL par marque et pour la flotte</li>
+ *     <li>occupation mensuelle : jours loués par voiture et par mois ; le sketch KLL d'un mois est construit à la
+ *     première lecture et reconstruit seulement quand le mois change</li>
+ *     <li>occupation sur une fenêtre quelconque : un échantillon uniforme (réservoir) des locations, mis à l'échelle
+ *     par le nombre exact de locations</li>
+ *     <li>nombre de locations par voiture et par marque, exact</li>
+ * </ul>
+ *
+ * <p>Seules les locations ACTIVE et COMPLETED sont intégrées, chacune une seule fois : une location est lue après
+ * être sortie de PENDING et ses changements ultérieurs (ACTIVE vers COMPLETED) ne changent pas ce qui est compté.
+ * Les requêtes lisent des sketches de taille fixe : leur coût ne dépend pas du nombre de locations. Tous les accès
+ * sont synchronisés : les mises à jour viennent d'un seul thread de rafraîchissement et les requêtes sont courtes.</p>
+ *
+ * <p>Les IDs sont attribués à l'insertion mais une location n'est visible qu'une fois sa transaction validée : un
+ * ID inférieur au curseur peut apparaître après lui. Chaque rafraîchissement relit donc les
+ * {@code analytics.approximate.recheck-window} IDs qui précèdent le curseur ({@link #readAfter()}) ; les IDs déjà
+ * lus dans cette fenêtre sont gardés ({@link #unread}) pour qu'aucune location ne soit comptée deux fois. Une
+ * location validée plus de {@code recheck-window} IDs derrière le curseur est ignorée.</p>
+ *
+ * <p>Les clients sont comptés par un hachage 64 bits de leur ID ({@link #clientKey}) : une location rejouée depuis
+ * un {@link RentalSnapshot} et une location lue dans rental-service comptent le même client une seule fois.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.approximate.enabled", havingValue = "true")
+public class RentalSketches {
+
+    /**
+     * Écarts-types des bornes HyperLogLog (environ 95 %).
+     */
+    static final int HLL_STD_DEVS = 2;
+
+    /**
+     * Quantile bilatéral à 95 % de la loi normale, pour les bornes de l'occupation estimée par échantillonnage.
+     */
+    static final double Z_95 = 1.96;
+
+    private static final long CLIENT_KEY_SEED = 0x5eed_c11e_47L;
+
+    private static final double[] RANKS = {0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+    private static final String[] RANK_NAMES = {"p10", "p25", "p50", "p75", "p90", "p99"};
+
+    private final int hllLgK;
+    private final int kllK;
+    private final int recheckWindow;
+
+    private final Map<Long, String> carBrands = new HashMap<>();
+    private final Map<String, Integer> brandCars = new HashMap<>();
+
+    private final HllSketch fleetClients;
+    private final Map<Long, HllSketch> carClients = new HashMap<>();
+    private final Map<String, HllSketch> brandClients = new HashMap<>();
+
+    private final KllDoublesSketch fleetRentalLength;
+    private final Map<String, KllDoublesSketch> brandRentalLength = new HashMap<>();
+
+    private final TreeMap<YearMonth, MonthOccupancy> months = new TreeMap<>();
+
+    private final ReservoirItemsSketch<SampledRental> sample;
+
+    private long fleetRentals;
+    private final Map<Long, Long> carRentals = new HashMap<>();
+    private final Map<String, Long> brandRentals = new HashMap<>();
+
+    private long lastRentalId;
+    // IDs déjà lus dans la fenêtre de relecture derrière le curseur
+    private final TreeSet<Long> recentRentalIds = new TreeSet<>();
+    private boolean loaded;
+
+    public RentalSketches(@Value("${analytics.approximate.hll-lg-k:11}") int hllLgK,
+                          @Value("${analytics.approximate.kll-k:200}") int kllK,
+                          @Value("${analytics.approximate.sample-size:8192}") int sampleSize,
+                          @Value("${analytics.approximate.recheck-window:1000}") int recheckWindow) {
+        this.hllLgK = hllLgK;
+        this.kllK = kllK;
+        this.recheckWindow = recheckWindow;
+        this.fleetClients = new HllSketch(hllLgK);
+        this.fleetRentalLength = KllDoublesSketch.newHeapInstance(kllK);
+        this.sample = ReservoirItemsSketch.newInstance(sampleSize);
+    }
+
+    /**
+     * Remplacer la flotte connue : marque de chaque voiture et nombre de voitures par marque.
+     * Les locations déjà intégrées gardent la marque qu'avait leur voiture à ce moment-là.
+     */
+    public synchronized void updateCars(List<Car> cars) {
+        carBrands.clear();
+        brandCars.clear();
+        for (Car car : cars) {
+            carBrands.put(car.getId(), car.getBrand());
+            if (car.getBrand() != null) {
+                brandCars.merge(car.getBrand(), 1, Integer::sum);
+            }
+        }
+        // Les voitures sans location comptent pour 0 % dans les distributions mensuelles
+        months.values().forEach(month -> month.distribution = null);
+    }
+
+    /**
+     * ID après lequel relire le flux des locations : {@code recheck-window} IDs avant le dernier ID lu, pour
+     * retrouver les locations validées en retard.
+     */
+    public synchronized long readAfter() {
+        return Math.max(0L, lastRentalId - recheckWindow);
+    }
+
+    /**
+     * Les locations d'une page lue par ID croissant qui n'ont pas encore été lues, jusqu'à la première location
+     * PENDING exclue : celles que {@link #addAll(List)} va lire.
+     */
+    public synchronized List<Rental> unread(List<Rental> rentals) {
+        List<Rental> unread = new ArrayList<>();
+        for (Rental rental : rentals) {
+            if (isPending(rental)) {
+                break;
+            }
+            if (!isRead(rental.getId())) {
+                unread.add(rental);
+            }
+        }
+        return unread;
+    }
+
+    /**
+     * Intégrer une page de locations lue par ID croissant après {@link #readAfter()}, sans celles déjà lues.
+     * S'arrête à la première location PENDING, relue au prochain rafraîchissement une fois sa réservation réglée.
+     *
+     * @return {@code true} if the whole page was read
+     */
+    public synchronized boolean addAll(List<Rental> rentals) {
+        for (Rental rental : rentals) {
+            if (isPending(rental)) {
+                return false;
+            }
+            if (isRead(rental.getId())) {
+                continue;
+            }
+            if (isFolded(rental)) {
+                add(rental.getCarId(), clientKey(rental.getClientId()), rental.getStartDate().toEpochDay(),
+                    rental.getEndDate().toEpochDay());
+            }
+            markRead(rental.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Intégrer les locations d'un snapshot, sans les lire dans rental-service.
+     */
+    public synchronized void addAll(RentalSnapshot snapshot) {
+        long windowStart = snapshot.lastRentalId() - recheckWindow;
+        snapshot.forEach((rentalId, carId, clientKey, startDay, endDay, status) -> {
+            add(carId, clientKey, startDay, endDay);
+            if (rentalId > windowStart) {
+                recentRentalIds.add(rentalId);
+            }
+        });
+        markRead(snapshot.lastRentalId());
+    }
+
+    /**
+     * Une location est déjà lue si elle est dans la fenêtre et a été vue, ou si elle est derrière la fenêtre.
+     */
+    private boolean isRead(long rentalId) {
+        return rentalId <= lastRentalId - recheckWindow || recentRentalIds.contains(rentalId);
+    }
+
+    private void markRead(long rentalId) {
+        recentRentalIds.add(rentalId);
+        lastRentalId = Math.max(lastRentalId, rentalId);
+        recentRentalIds.headSet(lastRentalId - recheckWindow, true).clear();
+    }
+
+    /**
+     * Une location PENDING arrête l'intégration : sa réservation peut encore être annulée.
+     */
+    static boolean isPending(Rental rental) {
+        return "PENDING".equalsIgnoreCase(rental.getStatus());
+    }
+
+    static boolean isFolded(Rental rental) {
+        return "ACTIVE".equalsIgnoreCase(rental.getStatus()) || "COMPLETED".equalsIgnoreCase(rental.getStatus());
+    }
+
+    /**
+     * Hachage 64 bits d'un ID client, 0 si absent.
+     */
+    static long clientKey(String clientId) {
+        if (clientId == null || clientId.isEmpty()) {
+            return 0L;
+        }
+        return MurmurHash3.hash(clientId.getBytes(StandardCharsets.UTF_8), CLIENT_KEY_SEED)[0];
+    }
+
+    private void add(long carId, long clientKey, long start, long end) {
+        String brand = carBrands.get(carId);
+        long days = end - start + 1;
+
+        fleetRentals++;
+        carRentals.merge(carId, 1L, Long::sum);
+        fleetRentalLength.update(days);
+        if (clientKey != 0L) {
+            fleetClients.update(clientKey);
+            carClients.computeIfAbsent(carId, id -> new HllSketch(hllLgK)).update(clientKey);
+        }
+        if (brand != null) {
+            brandRentals.merge(brand, 1L, Long::sum);
+            if (clientKey != 0L) {
+                brandClients.computeIfAbsent(brand, b -> new HllSketch(hllLgK)).update(clientKey);
+            }
+            brandRentalLength.computeIfAbsent(brand, b -> KllDoublesSketch.newHeapInstance(kllK)).update(days);
+        }
+
+        LocalDate endDate = LocalDate.ofEpochDay(end);
+        for (YearMonth month = YearMonth.from(LocalDate.ofEpochDay(start)); !month.atDay(1).isAfter(endDate);
+             month = month.plusMonths(1)) {
+            long monthStart = Math.max(start, month.atDay(1).toEpochDay());
+            long monthEnd = Math.min(end, month.atEndOfMonth().toEpochDay());
+            MonthOccupancy occupancy = months.computeIfAbsent(month, m -> new MonthOccupancy());
+            occupancy.rentedDays.merge(carId, (int) (monthEnd - monthStart + 1), Integer::sum);
+            occupancy.distribution = null;
+        }
+
+        sample.update(new SampledRental(brand, start, end));
+    }
+
+    public synchronized long lastRentalId() {
+        return lastRentalId;
+    }
+
+    /**
+     * Indique si tout l'historique a été lu une première fois.
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void markLoaded() {
+        loaded = true;
+    }
+
+    /**
+     * Clients distincts d'une voiture, d'une marque ou de la flotte (les deux {@code null}).
+     */
+    public synchronized DistinctClientsEstimate distinctClients(Long carId, String brand) {
+        HllSketch sketch;
+        long rentals;
+        if (carId != null) {
+            sketch = carClients.get(carId);
+            rentals = carRentals.getOrDefault(carId, 0L);
+        } else if (brand != null) {
+            sketch = brandClients.get(brand);
+            rentals = brandRentals.getOrDefault(brand, 0L);
+        } else {
+            sketch = fleetClients;
+            rentals = fleetRentals;
+        }
+        if (sketch == null || sketch.isEmpty()) {
+            return new DistinctClientsEstimate(carId, brand, rentals, 0L, 0L, 0L);
+        }
+        return new DistinctClientsEstimate(carId, brand, rentals, Math.round(sketch.getEstimate()),
+            (long) Math.floor(sketch.getLowerBound(HLL_STD_DEVS)), (long) Math.ceil(sketch.getUpperBound(HLL_STD_DEVS)));
+    }
+
+    /**
+     * Distribution de la durée des locations en jours, pour une marque ou la flotte ({@code null}).
+     */
+    public synchronized DistributionEstimate rentalLength(String brand) {
+        KllDoublesSketch sketch = brand != null ? brandRentalLength.get(brand) : fleetRentalLength;
+        return distribution(sketch != null ? sketch : KllDoublesSketch.newHeapInstance(kllK));
+    }
+
+    /**
+     * Distribution des taux d'occupation mensuels, une valeur par voiture et par mois, sur les mois de {@code from}
+     * à {@code to}. Le sketch de chaque mois est fusionné tel quel : le coût ne dépend que du nombre de mois.
+     */
+    public synchronized DistributionEstimate monthlyOccupancy(YearMonth from, YearMonth to) {
+        KllDoublesSketch merged = KllDoublesSketch.newHeapInstance(kllK);
+        int fleetSize = carBrands.size();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            MonthOccupancy occupancy = months.get(month);
+            if (occupancy == null) {
+                // Aucune location ce mois-ci : toutes les voitures de la flotte à 0 %
+                if (fleetSize > 0) {
+                    merged.update(0.0, fleetSize);
+                }
+                continue;
+            }
+            merged.merge(occupancy.distribution(month, fleetSize, kllK));
+        }
+        return distribution(merged);
+    }
+
+    /**
+     * Occupation d'une marque ou de la flotte ({@code null}) entre deux dates incluses, estimée sur l'échantillon :
+     * le nombre moyen de jours de chevauchement de chaque location échantillonnée avec la fenêtre, multiplié par le
+     * nombre exact de locations. Les bornes forment un intervalle de confiance à 95 % de cette estimation
+     * (approximation normale, avec correction de population finie).
+     */
+    public synchronized OccupancyEstimate occupancy(LocalDate startDate, LocalDate endDate, String brand) {
+        long windowStart = startDate.toEpochDay();
+        long windowEnd = endDate.toEpochDay();
+        long windowDays = windowEnd - windowStart + 1;
+        int cars = brand != null ? brandCars.getOrDefault(brand, 0) : carBrands.size();
+        long population = brand != null ? brandRentals.getOrDefault(brand, 0L) : fleetRentals;
+
+        // Moyenne et variance du chevauchement (en jours) des locations échantillonnées retenues (Welford)
+        int n = 0;
+        double mean = 0.0;
+        double squares = 0.0;
+        if (sample.getNumSamples() > 0) {
+            for (SampledRental rental : sample.getSamples()) {
+                if (brand != null && !brand.equals(rental.brand())) {
+                    continue;
+                }
+                double overlap = Math.max(0, Math.min(rental.endDay(), windowEnd)
+                    - Math.max(rental.startDay(), windowStart) + 1);
+                n++;
+                double delta = overlap - mean;
+                mean += delta / n;
+                squares += delta * (overlap - mean);
+            }
+        }
+
+        double carDays = (double) cars * windowDays;
+        double rentedDays = population * mean;
+        double margin = 0.0;
+        if (n == 0) {
+            // Aucune location échantillonnée retenue : aucune information, sauf s'il n'y a aucune location
+            margin = population > 0 ? carDays : 0.0;
+        } else if (n < population) {
+            double variance = n > 1 ? squares / (n - 1) : 0.0;
+            margin = Z_95 * population * Math.sqrt(variance / n * (1.0 - (double) n / population));
+        }
+        double occupancy = percentage(rentedDays, carDays);
+        double lower = percentage(rentedDays - margin, carDays);
+        double upper = percentage(rentedDays + margin, carDays);
+        return new OccupancyEstimate(startDate, endDate, brand, cars, population, n, Math.round(rentedDays),
+            round(occupancy), round(lower), round(upper), 0.95);
+    }
+
+    /**
+     * Pourcentage des jours-voitures disponibles, borné à [0, 100] (des locations qui se chevauchent le dépasseraient).
+     */
+    private static double percentage(double rentedDays, double carDays) {
+        return carDays > 0 ? Math.max(0.0, Math.min(100.0, rentedDays / carDays * 100.0)) : 0.0;
+    }
+
+    private static DistributionEstimate distribution(KllDoublesSketch sketch) {
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        if (sketch.isEmpty()) {
+            return new DistributionEstimate(0L, null, null, quantiles, sketch.getNormalizedRankError(false));
+        }
+        for (int i = 0; i < RANKS.length; i++) {
+            quantiles.put(RANK_NAMES[i], round(sketch.getQuantile(RANKS[i])));
+        }
+        return new DistributionEstimate(sketch.getN(), round(sketch.getMinItem()), round(sketch.getMaxItem()),
+            quantiles, sketch.getNormalizedRankError(false));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Jours loués par voiture sur un mois civil, et la distribution de leur occupation gardée en cache.
+     */
+    private static final class MonthOccupancy {
+        private final Map<Long, Integer> rentedDays = new HashMap<>();
+        private KllDoublesSketch distribution;
+
+        KllDoublesSketch distribution(YearMonth month, int fleetSize, int kllK) {
+            if (distribution == null) {
+                distribution = KllDoublesSketch.newHeapInstance(kllK);
+                int monthDays = month.lengthOfMonth();
+                for (int days : rentedDays.values()) {
+                    distribution.update(Math.min(100.0, days * 100.0 / monthDays));
+                }
+                // Voitures de la flotte sans location ce mois-ci
+                int idleCars = fleetSize - rentedDays.size();
+                if (idleCars > 0) {
+                    distribution.update(0.0, idleCars);
+                }
+            }
+            return distribution;
+        }
+    }
+
+    /**
+     * Ce que l'estimation d'occupation utilise d'une location échantillonnée.
+     */
+    private record SampledRental(String brand, long startDay, long endDay) {
+    }
+}
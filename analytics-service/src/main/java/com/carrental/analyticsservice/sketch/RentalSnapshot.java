@@ -0,0 +1,220 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.dto.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Les locations intégrées dans {@link RentalSketches}, gardées dans un fichier mappé en mémoire : un redémarrage
+ * reconstruit les sketches sans relire tout l'historique dans rental-service.
+ *
+ * <p>Le fichier est un en-tête de 64 octets suivi d'un enregistrement de taille fixe de 40 octets par location
+ * intégrée : ID de la location, ID de la voiture, clé client ({@link RentalSketches#clientKey}), premier et dernier
+ * jour en jours epoch, statut. Les enregistrements sont lus sur place dans le mapping : aucun parsing, aucun objet par
+ * location, et les données restent hors du tas. Les paramètres des sketches ne sont pas stockés et peuvent donc
+ * changer d'un redémarrage à l'autre ; les locations rejouées prennent la marque actuelle de leur voiture.</p>
+ *
+ * <p>Les nouvelles locations sont ajoutées au fil de leur lecture dans rental-service, y compris celles validées en
+ * retard derrière le curseur ({@link RentalSketches#unread}) ; les IDs des locations indiquent au redémarrage
+ * lesquelles ont déjà été lues. Les enregistrements sont écrits d'abord, puis l'en-tête (nombre d'enregistrements et
+ * curseur) : une écriture interrompue laisse des enregistrements au-delà du nombre, que l'ajout suivant écrase.
+ * L'en-tête garde aussi l'ID, la voiture et le premier jour de la location de plus grand ID : un rental-service dont
+ * les données ont été réinitialisées est ainsi détecté ({@link #matches}) au lieu d'être sauté jusqu'à l'ancien
+ * curseur.</p>
+ *
+ * <p>Utilisé depuis le seul thread de rafraîchissement.</p>
+ */
+@Component
+@ConditionalOnExpression("${analytics.approximate.enabled:false} and ${analytics.approximate.snapshot.enabled:false}")
+public class RentalSnapshot implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalSnapshot.class);
+
+    static final int MAGIC = 0x524E5453; // "RNTS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 40;
+
+    // En-tête
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int LAST_RENTAL_ID_OFFSET = 24;
+    private static final int LAST_CAR_ID_OFFSET = 32;
+    private static final int LAST_START_DAY_OFFSET = 40;
+
+    // Enregistrement
+    private static final int RENTAL_ID_OFFSET = 0;
+    private static final int CAR_ID_OFFSET = 8;
+    private static final int CLIENT_KEY_OFFSET = 16;
+    private static final int START_DAY_OFFSET = 24;
+    private static final int END_DAY_OFFSET = 28;
+    private static final int STATUS_OFFSET = 32;
+
+    static final byte ACTIVE = 1;
+    static final byte COMPLETED = 2;
+
+    private static final int INITIAL_RECORDS = 64 * 1024;
+    /** Un mapping est limité à 2 Gio : environ 53 millions de locations. */
+    private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long capacity;
+
+    public RentalSnapshot(@Value("${analytics.approximate.snapshot.file}") Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        long existing = channel.size() > HEADER_SIZE ? (channel.size() - HEADER_SIZE) / RECORD_SIZE : 0;
+        map(Math.max(INITIAL_RECORDS, existing));
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION
+                || buffer.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE || count() > capacity) {
+            if (buffer.getInt(MAGIC_OFFSET) != 0) {
+                log.warn("Rental snapshot {} has an unknown format, starting a new one", file);
+            }
+            clear();
+        }
+    }
+
+    /**
+     * Nombre de locations du snapshot.
+     */
+    public long count() {
+        return buffer.getLong(COUNT_OFFSET);
+    }
+
+    /**
+     * Plus grand ID des locations lues dans rental-service, intégrées ou non ; 0 pour un snapshot vide.
+     */
+    public long lastRentalId() {
+        return buffer.getLong(LAST_RENTAL_ID_OFFSET);
+    }
+
+    /**
+     * Indique si {@code rental}, relue dans rental-service, est la location de {@link #lastRentalId()} : même ID, même
+     * voiture et même premier jour. Sinon rental-service n'a plus les locations du snapshot.
+     */
+    public boolean matches(Rental rental) {
+        return rental != null && rental.getId() != null && rental.getId() == lastRentalId()
+            && rental.getCarId() != null && rental.getCarId() == buffer.getLong(LAST_CAR_ID_OFFSET)
+            && rental.getStartDate() != null
+            && rental.getStartDate().toEpochDay() == buffer.getInt(LAST_START_DAY_OFFSET);
+    }
+
+    /**
+     * Parcourir toutes les locations du snapshot, dans l'ordre de leur ajout.
+     */
+    public void forEach(RecordVisitor visitor) {
+        long count = count();
+        for (long i = 0; i < count; i++) {
+            int offset = (int) (HEADER_SIZE + i * RECORD_SIZE);
+            visitor.visit(buffer.getLong(offset + RENTAL_ID_OFFSET), buffer.getLong(offset + CAR_ID_OFFSET),
+                buffer.getLong(offset + CLIENT_KEY_OFFSET), buffer.getInt(offset + START_DAY_OFFSET),
+                buffer.getInt(offset + END_DAY_OFFSET), buffer.get(offset + STATUS_OFFSET));
+        }
+    }
+
+    /**
+     * Ajouter les locations d'une page pas encore lues ({@link RentalSketches#unread}), par ID croissant : seules les
+     * locations ACTIVE et COMPLETED sont gardées.
+     */
+    public void append(List<Rental> rentals) {
+        long count = count();
+        long lastRentalId = lastRentalId();
+        Rental last = null;
+        long written = 0;
+        for (Rental rental : rentals) {
+            if (RentalSketches.isFolded(rental)) {
+                if (count + written == capacity) {
+                    map(Math.min(capacity * 2, MAX_RECORDS));
+                    if (count + written == capacity) {
+                        throw new IllegalStateException("Rental snapshot " + file + " is full");
+                    }
+                }
+                int offset = (int) (HEADER_SIZE + (count + written) * RECORD_SIZE);
+                buffer.putLong(offset + RENTAL_ID_OFFSET, rental.getId());
+                buffer.putLong(offset + CAR_ID_OFFSET, rental.getCarId());
+                buffer.putLong(offset + CLIENT_KEY_OFFSET, RentalSketches.clientKey(rental.getClientId()));
+                buffer.putInt(offset + START_DAY_OFFSET, (int) rental.getStartDate().toEpochDay());
+                buffer.putInt(offset + END_DAY_OFFSET, (int) rental.getEndDate().toEpochDay());
+                buffer.put(offset + STATUS_OFFSET, "ACTIVE".equalsIgnoreCase(rental.getStatus()) ? ACTIVE : COMPLETED);
+                written++;
+            }
+            // Les locations validées en retard sont sous le curseur, qui reste sur le plus grand ID
+            if (rental.getId() > lastRentalId) {
+                lastRentalId = rental.getId();
+                last = rental;
+            }
+        }
+        if (last == null && written == 0) {
+            return;
+        }
+        // Les enregistrements d'abord, puis l'en-tête qui les rend visibles
+        if (written > 0) {
+            buffer.force((int) (HEADER_SIZE + count * RECORD_SIZE), (int) (written * RECORD_SIZE));
+        }
+        buffer.putLong(COUNT_OFFSET, count + written);
+        if (last != null) {
+            buffer.putLong(LAST_RENTAL_ID_OFFSET, last.getId());
+            buffer.putLong(LAST_CAR_ID_OFFSET, last.getCarId());
+            buffer.putInt(LAST_START_DAY_OFFSET, (int) last.getStartDate().toEpochDay());
+        }
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Vider le snapshot ; le fichier garde sa taille.
+     */
+    public void clear() {
+        for (int i = 0; i < HEADER_SIZE; i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Mapper l'en-tête et {@code records} enregistrements, en agrandissant le fichier si besoin.
+     */
+    private void map(long records) {
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + records * RECORD_SIZE);
+            capacity = records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Rental snapshot " + file + " could not be mapped", e);
+        }
+    }
+
+    /**
+     * Une location du snapshot.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long rentalId, long carId, long clientKey, int startDay, int endDay, byte status);
+    }
+}
@@ -0,0 +1,164 @@
+package com.carrental.analyticsservice.warmup;
+
+import com.carrental.analyticsservice.client.CarServiceClient;
+import com.carrental.analyticsservice.client.RentalServiceClient;
+import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.service.AnalyticsService;
+import com.carrental.common.warmup.WarmupStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.cloud.openfeign.FeignClientBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readiness-gated warmup of the occupancy path.
+ *
+ * <p>Runs before the application reports ready (readiness stays {@code REFUSING_TRAFFIC} until every
+ * {@link ApplicationRunner} has returned). Each iteration computes the fleet and the single-car occupancy with
+ * {@link AnalyticsService} against a loopback stub of car-service and rental-service, through Feign clients built
+ * like the production ones, and serializes the result.</p>
+ *
+ * <p>Stops after {@code warmup.iterations} computations or {@code warmup.max-duration}, whichever comes first, and
+ * publishes the elapsed time as the {@code application.warmup.duration} gauge.</p>
+ */
+@Component
+public class OccupancyWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyWarmup.class);
+
+    private static final int FLEET_SIZE = 50;
+    private static final int RENTALS_PER_CAR = 10;
+    private static final int REPORT_WINDOW = 50;
+
+    private final ApplicationContext applicationContext;
+    private final ObjectMapper objectMapper;
+    private final Executor fetchExecutor;
+    private final Duration fetchTimeout;
+    private final ForkJoinPool computePool;
+    private final int parallelMinCars;
+    private final AtomicLong durationMillis = new AtomicLong();
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public OccupancyWarmup(ApplicationContext applicationContext,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Qualifier("downstreamFetchExecutor") Executor fetchExecutor,
+                           @Value("${analytics.fetch.timeout:10s}") Duration fetchTimeout,
+                           @Qualifier("occupancyComputePool") ForkJoinPool computePool,
+                           @Value("${analytics.occupancy.parallel.min-cars:10000}") int parallelMinCars,
+                           @Value("${warmup.enabled:true}") boolean enabled,
+                           @Value("${warmup.iterations:1000}") int iterations,
+                           @Value("${warmup.max-duration:30s}") Duration maxDuration) {
+        this.applicationContext = applicationContext;
+        this.objectMapper = objectMapper;
+        this.fetchExecutor = fetchExecutor;
+        this.fetchTimeout = fetchTimeout;
+        this.computePool = computePool;
+        this.parallelMinCars = parallelMinCars;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        TimeGauge.builder("application.warmup.duration", durationMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Time spent warming up the occupancy path before accepting traffic")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        try (WarmupStubServer stubs = startStubs()) {
+            // Same contextIds as the production clients, so the same decoders and capabilities are used
+            FeignClientBuilder feign = new FeignClientBuilder(applicationContext);
+            AnalyticsService dryRun = new AnalyticsService(
+                feign.forType(CarServiceClient.class, "car-service").url(stubs.baseUrl()).build(),
+                feign.forType(RentalServiceClient.class, "rental-service").url(stubs.baseUrl()).build(),
+                fetchExecutor, fetchTimeout, computePool, parallelMinCars);
+
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusDays(30);
+            long deadline = start + maxDuration.toNanos();
+            long[] latencies = new long[iterations];
+            int done = 0;
+            while (done < iterations && System.nanoTime() < deadline) {
+                long begin = System.nanoTime();
+                List<OccupancyRate> rates = dryRun.calculateOccupancyRates(startDate, endDate);
+                objectMapper.writeValueAsBytes(rates);
+                objectMapper.writeValueAsBytes(dryRun.calculateOccupancyRateForCar(1L + done % FLEET_SIZE, startDate, endDate));
+                latencies[done++] = System.nanoTime() - begin;
+            }
+            durationMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Occupancy warmup completed in {} ms: {} iterations, mean {} ms over the first {} and {} ms over the last {}",
+                durationMillis.get(), done, meanMillis(latencies, 0, Math.min(REPORT_WINDOW, done)), Math.min(REPORT_WINDOW, done),
+                meanMillis(latencies, Math.max(0, done - REPORT_WINDOW), done), Math.min(REPORT_WINDOW, done));
+        } catch (Exception e) {
+            // Don't fail startup - the service still works, only the first requests are slower
+            durationMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.warn("Occupancy warmup aborted after {} ms: {}", durationMillis.get(), e.getMessage());
+        }
+    }
+
+    private WarmupStubServer startStubs() throws IOException {
+        LocalDate today = LocalDate.now();
+        StringBuilder cars = new StringBuilder("[");
+        StringBuilder allRentals = new StringBuilder("[");
+        String[] rentalsByCar = new String[FLEET_SIZE + 1];
+        for (int carId = 1; carId <= FLEET_SIZE; carId++) {
+            cars.append(carId > 1 ? "," : "").append(carJson(carId));
+            StringBuilder carRentals = new StringBuilder("[");
+            for (int r = 0; r < RENTALS_PER_CAR; r++) {
+                LocalDate startDate = today.minusDays(45 - 5L * r);
+                String rental = String.format(Locale.ROOT,
+                    "{\"id\":%d,\"carId\":%d,\"clientId\":\"warmup\",\"startDate\":\"%s\",\"endDate\":\"%s\",\"status\":\"%s\"}",
+                    carId * RENTALS_PER_CAR + r, carId, startDate, startDate.plusDays(1 + (carId + r) % 4),
+                    r % 3 == 0 ? "ACTIVE" : "COMPLETED");
+                carRentals.append(r > 0 ? "," : "").append(rental);
+                allRentals.append(allRentals.length() > 1 ? "," : "").append(rental);
+            }
+            rentalsByCar[carId] = carRentals.append(']').toString();
+        }
+        String allCars = cars.append(']').toString();
+        String rentals = allRentals.append(']').toString();
+        return new WarmupStubServer()
+            .route("/api/cars", request -> request.path().equals("/api/cars") ? allCars : carJson(request.trailingId()))
+            .route("/api/rentals", request -> request.path().startsWith("/api/rentals/car/")
+                ? rentalsByCar[(int) request.trailingId()] : rentals)
+            .start();
+    }
+
+    private static String carJson(long id) {
+        return String.format(Locale.ROOT, "{\"id\":%d,\"brand\":\"Warmup\",\"model\":\"Car%d\",\"year\":2024,"
+            + "\"status\":\"AVAILABLE\",\"pricePerDay\":50.0}", id, id);
+    }
+
+    private static String meanMillis(long[] latencies, int from, int to) {
+        double mean = to > from ? Arrays.stream(latencies, from, to).average().orElse(0) / 1_000_000.0 : 0;
+        return String.format(Locale.ROOT, "%.2f", mean);
+    }
+}
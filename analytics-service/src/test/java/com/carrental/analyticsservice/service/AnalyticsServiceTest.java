@@ -0,0 +1,107 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.client.CarServiceClient;
+import com.carrental.analyticsservice.client.RentalServiceClient;
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.dto.Rental;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    private final CarServiceClient carServiceClient = mock(CarServiceClient.class);
+    private final RentalServiceClient rentalServiceClient = mock(RentalServiceClient.class);
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final List<Car> cars = RentalColumnsTest.cars(500, 1);
+
+    @BeforeEach
+    void setUp() {
+        List<Rental> rentals = new ArrayList<>(RentalColumnsTest.rentals(ParallelScan.MIN_CHUNK * 5, cars, 1));
+        // Voiture 1 louée deux fois sur toute la période : ses jours loués dépassent la période avant plafond
+        rentals.add(rental(1L, START.minusDays(10), END.plusDays(10)));
+        rentals.add(0, rental(1L, START, END));
+        when(carServiceClient.getAllCars()).thenReturn(ResponseEntity.ok(cars));
+        when(rentalServiceClient.getAllRentals()).thenReturn(ResponseEntity.ok(rentals));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void parallelOccupancyRatesMatchTheSequentialOnes() {
+        List<OccupancyRate> sequential = service(0).calculateOccupancyRates(START, END);
+        List<OccupancyRate> parallel = service(1).calculateOccupancyRates(START, END);
+
+        assertThat(parallel).hasSize(cars.size())
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    void rentedDaysAreCappedAtThePeriodLength() {
+        for (int parallelMinCars : new int[] {0, 1}) {
+            OccupancyRate car = service(parallelMinCars).calculateOccupancyRates(START, END).get(0);
+
+            assertThat(car.getCarId()).isEqualTo(1L);
+            assertThat(car.getTotalDaysInPeriod()).isEqualTo(91L);
+            assertThat(car.getRentedDays()).isEqualTo(91L);
+            assertThat(car.getOccupancyPercentage()).isEqualTo(100.0);
+        }
+    }
+
+    @Test
+    void tooLongOrOutOfRangePeriodsAreRejected() {
+        AnalyticsService service = service(0);
+        LocalDate maxEnd = START.plusDays(AnalyticsService.MAX_PERIOD_DAYS - 1);
+
+        assertThat(service.calculateRevenueByCar(START, maxEnd)).hasSize(cars.size());
+        assertBadRequest(() -> service.calculateRevenueByCar(START, maxEnd.plusDays(1)));
+        assertBadRequest(() -> service.calculateTopCarsByRevenue(5, AnalyticsService.MIN_DATE,
+            AnalyticsService.MAX_DATE));
+        assertBadRequest(() -> service.calculateOccupancyRates(LocalDate.of(10_000, 1, 1), LocalDate.of(10_000, 1, 2)));
+        assertBadRequest(() -> service.calculateRevenueByBrand(LocalDate.of(0, 12, 31), LocalDate.of(1, 1, 1)));
+    }
+
+    private static void assertBadRequest(ThrowingCallable call) {
+        assertThatThrownBy(call).isInstanceOfSatisfying(ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private AnalyticsService service(int parallelMinCars) {
+        return new AnalyticsService(carServiceClient, rentalServiceClient, Runnable::run, Duration.ofSeconds(5), pool,
+            parallelMinCars);
+    }
+
+    private static Rental rental(long carId, LocalDate startDate, LocalDate endDate) {
+        Rental rental = new Rental();
+        rental.setCarId(carId);
+        rental.setClientId("client-1");
+        rental.setStatus("COMPLETED");
+        rental.setStartDate(startDate);
+        rental.setEndDate(endDate);
+        rental.setTotalAmount(100.0);
+        return rental;
+    }
+}
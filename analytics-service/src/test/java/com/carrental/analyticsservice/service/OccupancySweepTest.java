@@ -0,0 +1,131 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.OccupancyTimeSeries;
+import com.carrental.analyticsservice.dto.Rental;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancySweepTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 10);
+    private static final LocalDate[] BUCKETS = {START, LocalDate.of(2024, 1, 4), LocalDate.of(2024, 1, 8)};
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void rentalsAreSplitAtBucketEdgesAndClippedToThePeriod() {
+        long[] rentedDays = sweep(CarIndex.of(1L),
+            // Veille du début de la période au 2 : 2 jours dans le premier intervalle
+            rental(1L, "ACTIVE", "2023-12-31", "2024-01-02"),
+            // À cheval sur la limite des deux premiers intervalles
+            rental(1L, "COMPLETED", "2024-01-03", "2024-01-04"),
+            // Premier jour du dernier intervalle, et au-delà de la fin de la période
+            rental(1L, "COMPLETED", "2024-01-08", "2024-01-08"),
+            rental(1L, "ACTIVE", "2024-01-10", "2024-01-15"),
+            // Hors période, non occupante ou voiture inconnue : ignorées
+            rental(1L, "COMPLETED", "2024-01-11", "2024-01-12"),
+            rental(1L, "PENDING", "2024-01-05", "2024-01-06"),
+            rental(2L, "ACTIVE", "2024-01-05", "2024-01-06"));
+
+        assertThat(rentedDays).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void overlappingRentalsOfOneCarAreCappedAtTheBucketLength() {
+        long[] rentedDays = sweep(CarIndex.of(1L),
+            rental(1L, "ACTIVE", "2023-12-20", "2024-01-05"),
+            rental(1L, "COMPLETED", "2024-01-02", "2024-01-06"),
+            // Contiguë à la précédente
+            rental(1L, "COMPLETED", "2024-01-07", "2024-01-20"),
+            rental(1L, "COMPLETED", "2024-01-08", "2024-01-09"));
+
+        assertThat(rentedDays).containsExactly(3, 4, 3);
+    }
+
+    @Test
+    void eachCarCountsOnce() {
+        List<Car> cars = RentalColumnsTest.cars(2, 1);
+
+        long[] rentedDays = sweep(CarIndex.of(cars),
+            rental(1L, "ACTIVE", "2024-01-01", "2024-01-10"),
+            rental(1L, "ACTIVE", "2024-01-01", "2024-01-10"),
+            rental(2L, "ACTIVE", "2024-01-04", "2024-01-05"));
+
+        assertThat(rentedDays).containsExactly(3, 6, 3);
+    }
+
+    @Test
+    void rentalsOfOneCarAreMergedAcrossForkJoinChunks() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end);
+             day = OccupancyTimeSeries.Granularity.WEEK.nextBucketStart(day)) {
+            starts.add(day);
+        }
+        LocalDate[] bucketStarts = starts.toArray(new LocalDate[0]);
+        // Chaque voiture a des locations chevauchantes dans chaque tranche des colonnes
+        List<Car> cars = RentalColumnsTest.cars(50, 1);
+        List<Rental> rentals = RentalColumnsTest.rentals(ParallelScan.MIN_CHUNK * 5, cars, 1);
+        CarIndex carIndex = CarIndex.of(cars);
+        assertThat(ParallelScan.chunks(pool, rentals.size())).isEqualTo(4);
+
+        long[] parallel = OccupancySweep.rentedCarDays(RentalColumns.of(rentals, pool), carIndex, bucketStarts, end);
+        long[] sequential = OccupancySweep.rentedCarDays(RentalColumns.of(rentals), carIndex, bucketStarts, end);
+
+        // Référence jour par jour : les jours loués de chaque voiture, sans doublon
+        BitSet[] rentedByCar = new BitSet[cars.size()];
+        for (int i = 0; i < cars.size(); i++) {
+            rentedByCar[i] = new BitSet();
+        }
+        for (Rental rental : rentals) {
+            int car = carIndex.indexOf(rental.getCarId());
+            if (car >= 0 && RentalColumnsTest.isOccupying(rental)) {
+                LocalDate first = rental.getStartDate().isBefore(start) ? start : rental.getStartDate();
+                LocalDate last = rental.getEndDate().isAfter(end) ? end : rental.getEndDate();
+                for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                    rentedByCar[car].set((int) day.toEpochDay());
+                }
+            }
+        }
+        long[] expected = new long[bucketStarts.length];
+        for (int b = 0; b < bucketStarts.length; b++) {
+            int from = (int) bucketStarts[b].toEpochDay();
+            int to = b + 1 < bucketStarts.length ? (int) bucketStarts[b + 1].toEpochDay() : (int) end.toEpochDay() + 1;
+            for (BitSet days : rentedByCar) {
+                expected[b] += days.get(from, to).cardinality();
+            }
+        }
+        assertThat(parallel).containsExactly(expected);
+        assertThat(sequential).containsExactly(expected);
+    }
+
+    private static long[] sweep(CarIndex cars, Rental... rentals) {
+        return OccupancySweep.rentedCarDays(RentalColumns.of(List.of(rentals)), cars, BUCKETS, END);
+    }
+
+    private static Rental rental(long carId, String status, String startDate, String endDate) {
+        Rental rental = new Rental();
+        rental.setCarId(carId);
+        rental.setClientId("client-1");
+        rental.setStatus(status);
+        rental.setStartDate(LocalDate.parse(startDate));
+        rental.setEndDate(LocalDate.parse(endDate));
+        return rental;
+    }
+}
@@ -0,0 +1,79 @@
+package com.carrental.analyticsservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelScanTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void chunksHaveAtLeastMinChunkRowsAndAtMostOnePerThread() {
+        assertThat(ParallelScan.chunks(pool, 0)).isEqualTo(1);
+        assertThat(ParallelScan.chunks(pool, ParallelScan.MIN_CHUNK * 2 - 1)).isEqualTo(1);
+        assertThat(ParallelScan.chunks(pool, ParallelScan.MIN_CHUNK * 2)).isEqualTo(2);
+        assertThat(ParallelScan.chunks(pool, ParallelScan.MIN_CHUNK * 100)).isEqualTo(4);
+    }
+
+    @Test
+    void everyRowIsVisitedExactlyOnce() {
+        int size = ParallelScan.MIN_CHUNK * 4 + 17;
+        AtomicIntegerArray visits = new AtomicIntegerArray(size);
+        ConcurrentMap<Integer, int[]> ranges = new ConcurrentHashMap<>();
+
+        ParallelScan.forEachChunk(pool, size, (chunk, from, to) -> {
+            ranges.put(chunk, new int[] {from, to});
+            for (int row = from; row < to; row++) {
+                visits.incrementAndGet(row);
+            }
+        });
+
+        for (int row = 0; row < size; row++) {
+            assertThat(visits.get(row)).as("row %d", row).isEqualTo(1);
+        }
+        // Tranches contiguës, dans l'ordre de leur numéro
+        assertThat(ranges).containsOnlyKeys(0, 1, 2, 3);
+        assertThat(ranges.get(0)[0]).isZero();
+        for (int chunk = 1; chunk < 4; chunk++) {
+            assertThat(ranges.get(chunk)[0]).isEqualTo(ranges.get(chunk - 1)[1]);
+        }
+        assertThat(ranges.get(3)[1]).isEqualTo(size);
+    }
+
+    @Test
+    void smallScanStaysOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        Thread[] runner = new Thread[1];
+
+        ParallelScan.forEachChunk(pool, 100, (chunk, from, to) -> {
+            assertThat(chunk).isZero();
+            assertThat(from).isZero();
+            assertThat(to).isEqualTo(100);
+            runner[0] = Thread.currentThread();
+        });
+
+        assertThat(runner[0]).isSameAs(caller);
+    }
+
+    @Test
+    void failingChunkIsRethrownToTheCaller() {
+        assertThatThrownBy(() -> ParallelScan.forEachChunk(pool, ParallelScan.MIN_CHUNK * 4, (chunk, from, to) -> {
+            if (chunk == 2) {
+                throw new IllegalStateException("chunk " + chunk);
+            }
+        })).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalColumnsTest {
+
+    private static final String[] STATUSES = {"ACTIVE", "COMPLETED", "PENDING", "CANCELLED", "active", "UNKNOWN"};
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    // IDs denses (table directe) ou épars (recherche dichotomique)
+    @ParameterizedTest
+    @ValueSource(longs = {1, 1_000_000})
+    void countOccupancyMatchesTheObjectPath(long idStep) {
+        List<Car> cars = cars(50, idStep);
+        List<Rental> rentals = rentals(2_000, cars, idStep);
+        int startDay = (int) START.toEpochDay();
+        int endDay = (int) END.toEpochDay();
+
+        long[] rentedDays = new long[cars.size()];
+        int[] counts = new int[cars.size()];
+        RentalColumns.of(rentals).countOccupancy(CarIndex.of(cars), startDay, endDay, rentedDays, counts);
+
+        // Chemin objet d'origine : filtre par voiture puis jours tronqués à la période
+        long[] expectedDays = new long[cars.size()];
+        int[] expectedCounts = new int[cars.size()];
+        for (int i = 0; i < cars.size(); i++) {
+            for (Rental rental : rentals) {
+                if (cars.get(i).getId().equals(rental.getCarId()) && isOccupying(rental)) {
+                    expectedDays[i] += clippedDays(rental, startDay, endDay);
+                    expectedCounts[i]++;
+                }
+            }
+        }
+        assertThat(rentedDays).containsExactly(expectedDays);
+        assertThat(counts).containsExactly(expectedCounts);
+    }
+
+    @Test
+    void parallelBuildAndCountMatchTheSequentialOnes() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Car> cars = cars(500, 1);
+            List<Rental> rentals = rentals(ParallelScan.MIN_CHUNK * 5, cars, 1);
+            assertThat(ParallelScan.chunks(pool, rentals.size())).isEqualTo(4);
+            int startDay = (int) START.toEpochDay();
+            int endDay = (int) END.toEpochDay();
+
+            RentalColumns sequential = RentalColumns.of(rentals);
+            // Liste sans accès direct : copiée avant le découpage
+            RentalColumns parallel = RentalColumns.of(new LinkedList<>(rentals), pool);
+
+            assertThat(parallel.size()).isEqualTo(sequential.size());
+            assertThat(parallel.carIds).containsExactly(sequential.carIds);
+            assertThat(parallel.startDays).containsExactly(sequential.startDays);
+            assertThat(parallel.endDays).containsExactly(sequential.endDays);
+            assertThat(parallel.statuses).containsExactly(sequential.statuses);
+            assertThat(parallel.totalAmounts).containsExactly(sequential.totalAmounts);
+
+            long[] expectedDays = new long[cars.size()];
+            int[] expectedCounts = new int[cars.size()];
+            sequential.countOccupancy(CarIndex.of(cars), startDay, endDay, expectedDays, expectedCounts);
+            long[] rentedDays = new long[cars.size()];
+            int[] counts = new int[cars.size()];
+            parallel.countOccupancy(CarIndex.of(cars), startDay, endDay, rentedDays, counts, pool);
+
+            assertThat(rentedDays).containsExactly(expectedDays);
+            assertThat(counts).containsExactly(expectedCounts);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rentalsWithoutCarOrDatesAreNeverCounted() {
+        Rental withoutCar = rental(null, "client-1", "ACTIVE", START, START.plusDays(2));
+        Rental withoutDates = rental(1L, "client-1", "ACTIVE", null, null);
+        Rental complete = rental(1L, "client-1", "ACTIVE", START, START.plusDays(2));
+        complete.setTotalAmount(null);
+
+        RentalColumns columns = RentalColumns.of(List.of(withoutCar, withoutDates, complete));
+
+        assertThat(columns.statuses).containsExactly(RentalColumns.MISSING, RentalColumns.MISSING,
+            RentalColumns.ACTIVE);
+        assertThat(columns.totalAmounts[2]).isNaN();
+        long[] rentedDays = new long[1];
+        int[] counts = new int[1];
+        columns.countOccupancy(CarIndex.of(1L), (int) START.toEpochDay(), (int) END.toEpochDay(), rentedDays, counts);
+        assertThat(rentedDays).containsExactly(3L);
+        assertThat(counts).containsExactly(1);
+    }
+
+    @Test
+    void carIndexFindsEachCarAtItsPosition() {
+        List<Car> cars = new ArrayList<>(cars(10, 1_000_000));
+        cars.add(new Car());
+
+        CarIndex index = CarIndex.of(cars);
+
+        assertThat(index.size()).isEqualTo(11);
+        for (int i = 0; i < 10; i++) {
+            assertThat(index.indexOf(cars.get(i).getId())).isEqualTo(i);
+        }
+        assertThat(index.indexOf(42L)).isEqualTo(-1);
+        assertThat(CarIndex.of(List.of()).indexOf(1L)).isEqualTo(-1);
+    }
+
+    static List<Car> cars(int count, long idStep) {
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Car car = new Car();
+            car.setId(1 + i * idStep);
+            car.setBrand(i % 2 == 0 ? "Renault" : "Peugeot");
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    /**
+     * Locations aléatoires mais reproductibles, de part et d'autre de la période, sur les voitures données et sur
+     * des voitures inconnues.
+     */
+    static List<Rental> rentals(int count, List<Car> cars, long idStep) {
+        Random random = new Random(count);
+        Map<Integer, Long> unknownCars = new HashMap<>();
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Long carId = random.nextInt(10) == 0
+                ? unknownCars.computeIfAbsent(random.nextInt(5), n -> -1 - n * idStep)
+                : cars.get(random.nextInt(cars.size())).getId();
+            LocalDate startDate = START.minusDays(30).plusDays(random.nextInt(150));
+            Rental rental = rental(carId, "client-" + random.nextInt(20), STATUSES[random.nextInt(STATUSES.length)],
+                startDate, startDate.plusDays(random.nextInt(20)));
+            rental.setTotalAmount(50.0 * (1 + random.nextInt(10)));
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+
+    static boolean isOccupying(Rental rental) {
+        return "ACTIVE".equalsIgnoreCase(rental.getStatus()) || "COMPLETED".equalsIgnoreCase(rental.getStatus());
+    }
+
+    static long clippedDays(Rental rental, long startDay, long endDay) {
+        long start = Math.max(rental.getStartDate().toEpochDay(), startDay);
+        long end = Math.min(rental.getEndDate().toEpochDay(), endDay);
+        return start <= end ? end - start + 1 : 0;
+    }
+
+    private static Rental rental(Long carId, String clientId, String status, LocalDate startDate, LocalDate endDate) {
+        Rental rental = new Rental();
+        rental.setCarId(carId);
+        rental.setClientId(clientId);
+        rental.setStatus(status);
+        rental.setStartDate(startDate);
+        rental.setEndDate(endDate);
+        rental.setTotalAmount(100.0);
+        return rental;
+    }
+}
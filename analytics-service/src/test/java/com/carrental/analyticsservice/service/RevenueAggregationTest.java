@@ -0,0 +1,143 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.BrandRevenue;
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.CarRevenue;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.analyticsservice.dto.RevenueBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RevenueAggregationTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 10);
+
+    private final List<Car> cars = List.of(car(1L, "Renault"), car(2L, "Renault"), car(3L, "Peugeot"));
+    private RevenueAggregation aggregation;
+
+    @BeforeEach
+    void setUp() {
+        aggregation = new RevenueAggregation(cars, START, END, true);
+        aggregation.add(RentalColumns.of(List.of(
+            // 4 jours à 100 dont 2 dans la période
+            rental(1L, "ACTIVE", "2023-12-30", "2024-01-02", 400.0),
+            rental(2L, "COMPLETED", "2024-01-05", "2024-01-06", 300.0),
+            // 4 jours à 100 dont 2 dans la période
+            rental(3L, "COMPLETED", "2024-01-09", "2024-01-12", 400.0),
+            // Montant absent : la location compte, sans chiffre d'affaires
+            rental(2L, "COMPLETED", "2024-01-08", "2024-01-08", null),
+            rental(1L, "PENDING", "2024-01-03", "2024-01-04", 1000.0),
+            rental(2L, "CANCELLED", "2024-01-03", "2024-01-04", 1000.0),
+            rental(99L, "ACTIVE", "2024-01-03", "2024-01-04", 1000.0),
+            rental(3L, "COMPLETED", "2024-02-01", "2024-02-02", 1000.0))));
+    }
+
+    @Test
+    void totalsCountOccupyingRentalsOfKnownCarsClippedToThePeriod() {
+        assertThat(aggregation.numberOfCars()).isEqualTo(3);
+        assertThat(aggregation.periodDays()).isEqualTo(10);
+        assertThat(aggregation.totalRevenue()).isCloseTo(700.0, within(1e-9));
+        assertThat(aggregation.totalRentals()).isEqualTo(4);
+    }
+
+    @Test
+    void revenueIsSpreadEvenlyOverTheRentalDays() {
+        List<CarRevenue> byCar = aggregation.byCar();
+
+        assertThat(byCar).extracting(CarRevenue::getCarId).containsExactly(1L, 2L, 3L);
+        assertThat(byCar).extracting(CarRevenue::getRevenue).containsExactly(200.0, 300.0, 200.0);
+        assertThat(byCar).extracting(CarRevenue::getRentedDays).containsExactly(2L, 3L, 2L);
+        assertThat(byCar).extracting(CarRevenue::getNumberOfRentals).containsExactly(1, 2, 1);
+        assertThat(byCar).extracting(CarRevenue::getRevenuePerAvailableDay).containsExactly(20.0, 30.0, 20.0);
+    }
+
+    @Test
+    void topCarsAreSortedByRevenueThenByCarId() {
+        assertThat(aggregation.topCars(2)).extracting(CarRevenue::getCarId).containsExactly(2L, 1L);
+        assertThat(aggregation.topCars(3)).extracting(CarRevenue::getCarId).containsExactly(2L, 1L, 3L);
+        assertThat(aggregation.topCars(10)).hasSize(3);
+    }
+
+    @Test
+    void carsWithoutIdComeLastInTheTopCars() {
+        List<Car> fleet = List.of(car(null, "Renault"), car(5L, "Renault"), car(4L, "Peugeot"), car(6L, "Peugeot"));
+        RevenueAggregation withoutId = new RevenueAggregation(fleet, START, END, false);
+        withoutId.add(RentalColumns.of(List.of(rental(6L, "ACTIVE", "2024-01-02", "2024-01-02", 50.0))));
+
+        // Sans location, chiffre d'affaires nul : ordre des IDs, voiture sans ID en dernier
+        assertThat(withoutId.topCars(4)).extracting(CarRevenue::getCarId).containsExactly(6L, 4L, 5L, null);
+        assertThat(withoutId.topCars(3)).extracting(CarRevenue::getCarId).containsExactly(6L, 4L, 5L);
+    }
+
+    @Test
+    void brandsAddUpToTheTotal() {
+        List<BrandRevenue> byBrand = aggregation.byBrand();
+
+        assertThat(byBrand).extracting(BrandRevenue::getBrand).containsExactly("Renault", "Peugeot");
+        assertThat(byBrand).extracting(BrandRevenue::getNumberOfCars).containsExactly(2, 1);
+        assertThat(byBrand).extracting(BrandRevenue::getRevenue).containsExactly(500.0, 200.0);
+        assertThat(byBrand).extracting(BrandRevenue::getNumberOfRentals).containsExactly(3, 1);
+        assertThat(byBrand).extracting(BrandRevenue::getRevenuePerAvailableDay).containsExactly(25.0, 20.0);
+    }
+
+    @Test
+    void bucketsAddUpToTheTotal() {
+        List<RevenueBucket> buckets = aggregation.byBucket(new LocalDate[] {
+            START, LocalDate.of(2024, 1, 4), LocalDate.of(2024, 1, 8)});
+
+        assertThat(buckets).extracting(RevenueBucket::getEndDate).containsExactly(
+            LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 7), END);
+        assertThat(buckets).extracting(RevenueBucket::getTotalDays).containsExactly(3L, 4L, 3L);
+        assertThat(buckets).extracting(RevenueBucket::getRevenue).containsExactly(200.0, 300.0, 200.0);
+        assertThat(buckets).extracting(RevenueBucket::getRevenuePerAvailableDay).containsExactly(22.22, 25.0, 22.22);
+        assertThat(buckets.stream().mapToDouble(RevenueBucket::getRevenue).sum())
+            .isCloseTo(aggregation.totalRevenue(), within(1e-9));
+    }
+
+    @Test
+    void bucketsNeedTheDailyRevenue() {
+        RevenueAggregation totalsOnly = new RevenueAggregation(cars, START, END, false);
+
+        assertThatThrownBy(() -> totalsOnly.byBucket(new LocalDate[] {START}))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void emptyFleetHasNoRevenue() {
+        RevenueAggregation empty = new RevenueAggregation(List.of(), START, END, true);
+        empty.add(RentalColumns.of(List.of(rental(1L, "ACTIVE", "2024-01-02", "2024-01-03", 100.0))));
+
+        assertThat(empty.totalRevenue()).isZero();
+        assertThat(empty.topCars(5)).isEmpty();
+        assertThat(empty.byBucket(new LocalDate[] {START})).singleElement()
+            .satisfies(bucket -> assertThat(bucket.getRevenuePerAvailableDay()).isZero());
+    }
+
+    private static Car car(Long id, String brand) {
+        Car car = new Car();
+        car.setId(id);
+        car.setBrand(brand);
+        car.setModel("Model " + id);
+        car.setYear(2022);
+        return car;
+    }
+
+    private static Rental rental(long carId, String status, String startDate, String endDate, Double totalAmount) {
+        Rental rental = new Rental();
+        rental.setCarId(carId);
+        rental.setClientId("client-" + carId);
+        rental.setStartDate(LocalDate.parse(startDate));
+        rental.setEndDate(LocalDate.parse(endDate));
+        rental.setStatus(status);
+        rental.setTotalAmount(totalAmount);
+        return rental;
+    }
+}
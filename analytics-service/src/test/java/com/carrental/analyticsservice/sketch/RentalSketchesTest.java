@@ -0,0 +1,103 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.dto.Rental;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RentalSketchesTest {
+
+    @Test
+    void rentalsCommittedLateBehindTheCursorAreFoldedOnce() {
+        RentalSketches sketches = new RentalSketches(11, 200, 64, 1000);
+
+        // La location 3 n'est pas encore validée à la première lecture
+        assertThat(sketches.addAll(List.of(rental(1, "ACTIVE"), rental(2, "COMPLETED"), rental(4, "ACTIVE"))))
+            .isTrue();
+        assertThat(sketches.lastRentalId()).isEqualTo(4);
+        assertThat(sketches.readAfter()).isZero();
+
+        List<Rental> page = List.of(rental(1, "ACTIVE"), rental(2, "COMPLETED"), rental(3, "ACTIVE"),
+            rental(4, "COMPLETED"), rental(5, "ACTIVE"));
+        assertThat(sketches.unread(page)).extracting(Rental::getId).containsExactly(3L, 5L);
+        assertThat(sketches.addAll(page)).isTrue();
+
+        assertThat(rentals(sketches)).isEqualTo(5);
+        assertThat(sketches.unread(page)).isEmpty();
+    }
+
+    @Test
+    void rentalsBehindTheRecheckWindowAreSkipped() {
+        RentalSketches sketches = new RentalSketches(11, 200, 64, 2);
+        sketches.addAll(List.of(rental(1, "ACTIVE"), rental(3, "ACTIVE"), rental(4, "ACTIVE"), rental(5, "ACTIVE")));
+
+        assertThat(sketches.readAfter()).isEqualTo(3);
+        sketches.addAll(List.of(rental(2, "ACTIVE"), rental(4, "ACTIVE"), rental(5, "ACTIVE")));
+
+        assertThat(rentals(sketches)).isEqualTo(4);
+    }
+
+    @Test
+    void pendingRentalStopsTheFoldingUntilItIsSettled() {
+        RentalSketches sketches = new RentalSketches(11, 200, 64, 1000);
+
+        assertThat(sketches.addAll(List.of(rental(1, "ACTIVE"), rental(2, "PENDING"), rental(3, "ACTIVE"))))
+            .isFalse();
+        assertThat(sketches.lastRentalId()).isEqualTo(1);
+
+        sketches.addAll(List.of(rental(1, "ACTIVE"), rental(2, "CANCELLED"), rental(3, "ACTIVE")));
+        assertThat(sketches.lastRentalId()).isEqualTo(3);
+        assertThat(rentals(sketches)).isEqualTo(2);
+    }
+
+    @Test
+    void restartFromTheSnapshotDoesNotFoldTheRecheckWindowAgain(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rentals.snapshot");
+        List<Rental> page = List.of(rental(1, "ACTIVE"), rental(2, "CANCELLED"), rental(4, "COMPLETED"));
+        try (RentalSnapshot snapshot = new RentalSnapshot(file)) {
+            RentalSketches sketches = new RentalSketches(11, 200, 64, 1000);
+            snapshot.append(sketches.unread(page));
+            sketches.addAll(page);
+        }
+
+        try (RentalSnapshot snapshot = new RentalSnapshot(file)) {
+            assertThat(snapshot.count()).isEqualTo(2);
+            assertThat(snapshot.lastRentalId()).isEqualTo(4);
+            RentalSketches restarted = new RentalSketches(11, 200, 64, 1000);
+            restarted.addAll(snapshot);
+
+            // Relecture de la fenêtre : seules la location annulée (absente du snapshot) et la 3 sont relues
+            List<Rental> recheck = List.of(rental(1, "ACTIVE"), rental(2, "CANCELLED"), rental(3, "ACTIVE"),
+                rental(4, "COMPLETED"));
+            assertThat(restarted.unread(recheck)).extracting(Rental::getId).containsExactly(2L, 3L);
+            snapshot.append(restarted.unread(recheck));
+            restarted.addAll(recheck);
+
+            assertThat(rentals(restarted)).isEqualTo(3);
+            assertThat(snapshot.count()).isEqualTo(3);
+            assertThat(snapshot.lastRentalId()).isEqualTo(4);
+            assertThat(snapshot.matches(rental(4, "COMPLETED"))).isTrue();
+        }
+    }
+
+    private static long rentals(RentalSketches sketches) {
+        return sketches.distinctClients(null, null).getNumberOfRentals();
+    }
+
+    private static Rental rental(long id, String status) {
+        Rental rental = new Rental();
+        rental.setId(id);
+        rental.setCarId(id % 3 + 1);
+        rental.setClientId("client-" + id);
+        rental.setStatus(status);
+        rental.setStartDate(LocalDate.of(2024, 1, 1).plusDays(id));
+        rental.setEndDate(LocalDate.of(2024, 1, 3).plusDays(id));
+        return rental;
+    }
+}
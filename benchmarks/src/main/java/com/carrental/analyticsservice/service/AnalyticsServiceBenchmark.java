@@ -0,0 +1,157 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.client.CarServiceClient;
+import com.carrental.analyticsservice.client.RentalServiceClient;
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.CarRevenue;
+import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.dto.OccupancyTimeSeries;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.analyticsservice.dto.RevenueReport;
+import com.carrental.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the occupancy computation in {@link AnalyticsService}.
+ * The Feign clients are replaced by in-memory stubs so only the computation itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int fleetSize;
+
+    @Param({"5", "20"})
+    public int rentalsPerCar;
+
+    private AnalyticsService analyticsService;
+    private List<Rental> singleCarRentals;
+    private List<Long> carIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Car> cars = Fixtures.cars(fleetSize);
+        List<Rental> rentals = Fixtures.rentals(fleetSize, rentalsPerCar);
+        // The stubs answer at once: the fetches run on the calling thread, only the computation is measured
+        analyticsService = new AnalyticsService(new StubCarServiceClient(cars), new StubRentalServiceClient(rentals),
+            Runnable::run, Duration.ofSeconds(10), ForkJoinPool.commonPool(), 0); // 0: always sequential
+        carIds = cars.stream().map(Car::getId).collect(Collectors.toList());
+        singleCarRentals = rentals.stream()
+            .filter(r -> r.getCarId() == 1L)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<OccupancyRate> calculateOccupancyRates() {
+        return analyticsService.calculateOccupancyRates(Fixtures.WINDOW_START, Fixtures.WINDOW_END);
+    }
+
+    @Benchmark
+    public List<OccupancyRate> streamOccupancyRatesForCars() {
+        try (Stream<List<OccupancyRate>> batches = analyticsService.streamOccupancyRatesForCars(
+                carIds, Fixtures.WINDOW_START, Fixtures.WINDOW_END)) {
+            return batches.flatMap(List::stream).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * A year of daily buckets across the whole fleet.
+     */
+    @Benchmark
+    public OccupancyTimeSeries calculateOccupancyTimeSeries() {
+        return analyticsService.calculateOccupancyTimeSeries(null, OccupancyTimeSeries.Granularity.DAY,
+            Fixtures.WINDOW_END.minusDays(364), Fixtures.WINDOW_END);
+    }
+
+    @Benchmark
+    public RevenueReport calculateRevenue() {
+        return analyticsService.calculateRevenue(OccupancyTimeSeries.Granularity.DAY,
+            Fixtures.WINDOW_END.minusDays(364), Fixtures.WINDOW_END);
+    }
+
+    @Benchmark
+    public List<CarRevenue> calculateTopCarsByRevenue() {
+        return analyticsService.calculateTopCarsByRevenue(10, Fixtures.WINDOW_START, Fixtures.WINDOW_END);
+    }
+
+    @Benchmark
+    public long calculateRentedDays() {
+        return analyticsService.calculateRentedDays(singleCarRentals, Fixtures.WINDOW_START, Fixtures.WINDOW_END);
+    }
+
+    static final class StubCarServiceClient implements CarServiceClient {
+        private final List<Car> cars;
+
+        StubCarServiceClient(List<Car> cars) {
+            this.cars = cars;
+        }
+
+        @Override
+        public ResponseEntity<List<Car>> getAllCars() {
+            return ResponseEntity.ok(cars);
+        }
+
+        @Override
+        public ResponseEntity<Car> getCarById(Long id) {
+            return ResponseEntity.ok(cars.get((int) (id - 1)));
+        }
+
+        @Override
+        public ResponseEntity<List<Car>> getCarsByIds(Collection<Long> ids) {
+            return ResponseEntity.ok(ids.stream()
+                .map(id -> cars.get((int) (id - 1)))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    static final class StubRentalServiceClient implements RentalServiceClient {
+        private final List<Rental> rentals;
+
+        StubRentalServiceClient(List<Rental> rentals) {
+            this.rentals = rentals;
+        }
+
+        @Override
+        public ResponseEntity<List<Rental>> getAllRentals() {
+            return ResponseEntity.ok(rentals);
+        }
+
+        @Override
+        public ResponseEntity<List<Rental>> getRentalsByCarId(Long carId) {
+            return ResponseEntity.ok(rentals.stream()
+                .filter(r -> r.getCarId().equals(carId))
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public ResponseEntity<List<Rental>> getRentalsByCarIds(Collection<Long> carIds) {
+            Set<Long> ids = new HashSet<>(carIds);
+            return ResponseEntity.ok(rentals.stream()
+                .filter(r -> ids.contains(r.getCarId()))
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public ResponseEntity<List<Rental>> getRentalsAfter(long afterId, int limit) {
+            // Fixture IDs run from 1 in list order
+            int from = (int) Math.min(afterId, rentals.size());
+            return ResponseEntity.ok(rentals.subList(from, Math.min(from + limit, rentals.size())));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnalyticsService#calculateOccupancyRates} on large fleets, by size of the dedicated fork-join pool.
+ * {@code parallelism = 0} is the sequential path. The speedup is bounded by the cores of the machine: compare the
+ * values up to {@code Runtime.availableProcessors()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ParallelOccupancyBenchmark {
+
+    @Param({"10000", "100000"})
+    public int fleetSize;
+
+    @Param({"20"})
+    public int rentalsPerCar;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private AnalyticsService analyticsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Rental> rentals = Fixtures.rentals(fleetSize, rentalsPerCar);
+        pool = new ForkJoinPool(Math.max(1, parallelism));
+        analyticsService = new AnalyticsService(
+            new AnalyticsServiceBenchmark.StubCarServiceClient(Fixtures.cars(fleetSize)),
+            new AnalyticsServiceBenchmark.StubRentalServiceClient(rentals),
+            Runnable::run, Duration.ofSeconds(10), pool, parallelism > 0 ? 1 : 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<OccupancyRate> calculateOccupancyRates() {
+        return analyticsService.calculateOccupancyRates(Fixtures.WINDOW_START, Fixtures.WINDOW_END);
+    }
+}
@@ -0,0 +1,134 @@
+package com.carrental.analyticsservice.service;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Row objects versus {@link RentalColumns} for the scans behind the analytics endpoints.
+ *
+ * <p>{@code occupancyPerCarFilter} is the former occupancy loop (one filter over all rentals per car),
+ * {@code occupancyObjects} a single pass over the objects, {@code occupancyColumns} the columnar kernel alone and
+ * {@code occupancyColumnsWithBuild} what a request pays, columns included. The {@code copy*} benchmarks compare the
+ * footprint of the two layouts through {@code gc.alloc.rate.norm}; the object copy keeps the client ID strings of
+ * the source, so its figure is a lower bound.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentalColumnsBenchmark {
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    @Param({"20", "100"})
+    public int rentalsPerCar;
+
+    private List<Car> cars;
+    private List<Rental> rentals;
+    private CarIndex carIndex;
+    private RentalColumns columns;
+    private int startDay;
+    private int endDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cars = Fixtures.cars(fleetSize);
+        rentals = Fixtures.rentals(fleetSize, rentalsPerCar);
+        carIndex = CarIndex.of(cars);
+        columns = RentalColumns.of(rentals);
+        startDay = (int) Fixtures.WINDOW_START.toEpochDay();
+        endDay = (int) Fixtures.WINDOW_END.toEpochDay();
+    }
+
+    @Benchmark
+    public long[] occupancyPerCarFilter() {
+        long[] rentedDays = new long[cars.size()];
+        for (int i = 0; i < cars.size(); i++) {
+            Long carId = cars.get(i).getId();
+            List<Rental> carRentals = rentals.stream()
+                .filter(r -> r.getCarId().equals(carId))
+                .filter(RentalColumnsBenchmark::isOccupying)
+                .collect(Collectors.toList());
+            for (Rental rental : carRentals) {
+                rentedDays[i] += clippedDays(rental);
+            }
+        }
+        return rentedDays;
+    }
+
+    @Benchmark
+    public long[] occupancyObjects() {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < cars.size(); i++) {
+            positions.put(cars.get(i).getId(), i);
+        }
+        long[] rentedDays = new long[cars.size()];
+        for (Rental rental : rentals) {
+            Integer position = positions.get(rental.getCarId());
+            if (position != null && isOccupying(rental)) {
+                rentedDays[position] += clippedDays(rental);
+            }
+        }
+        return rentedDays;
+    }
+
+    @Benchmark
+    public long[] occupancyColumns() {
+        long[] rentedDays = new long[cars.size()];
+        columns.countOccupancy(carIndex, startDay, endDay, rentedDays, new int[cars.size()]);
+        return rentedDays;
+    }
+
+    @Benchmark
+    public long[] occupancyColumnsWithBuild() {
+        long[] rentedDays = new long[cars.size()];
+        RentalColumns.of(rentals).countOccupancy(CarIndex.of(cars), startDay, endDay, rentedDays,
+            new int[cars.size()]);
+        return rentedDays;
+    }
+
+    @Benchmark
+    public List<Rental> copyObjects() {
+        List<Rental> copy = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            Rental copied = new Rental();
+            copied.setId(Long.valueOf(rental.getId()));
+            copied.setCarId(Long.valueOf(rental.getCarId()));
+            copied.setClientId(new String(rental.getClientId()));
+            copied.setStartDate(LocalDate.ofEpochDay(rental.getStartDate().toEpochDay()));
+            copied.setEndDate(LocalDate.ofEpochDay(rental.getEndDate().toEpochDay()));
+            copied.setStatus(rental.getStatus());
+            copied.setTotalAmount(Double.valueOf(rental.getTotalAmount()));
+            copy.add(copied);
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public RentalColumns copyColumns() {
+        return RentalColumns.of(rentals);
+    }
+
+    private static boolean isOccupying(Rental rental) {
+        return "ACTIVE".equalsIgnoreCase(rental.getStatus()) || "COMPLETED".equalsIgnoreCase(rental.getStatus());
+    }
+
+    private long clippedDays(Rental rental) {
+        long start = Math.max(rental.getStartDate().toEpochDay(), startDay);
+        long end = Math.min(rental.getEndDate().toEpochDay(), endDay);
+        return start <= end ? end - start + 1 : 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.dto.DistinctClientsEstimate;
+import com.carrental.analyticsservice.dto.DistributionEstimate;
+import com.carrental.analyticsservice.dto.OccupancyEstimate;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the approximate queries of {@link RentalSketches}.
+ * The query cost should not move with {@code rentalsPerCar}: only the sketch size matters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentalSketchesBenchmark {
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    @Param({"20", "200"})
+    public int rentalsPerCar;
+
+    private RentalSketches sketches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sketches = new RentalSketches(11, 200, 8192, 1000);
+        sketches.updateCars(Fixtures.cars(fleetSize));
+        List<Rental> rentals = Fixtures.rentals(fleetSize, rentalsPerCar);
+        for (int from = 0; from < rentals.size(); from += RentalSketchRefresher.PAGE_SIZE) {
+            sketches.addAll(rentals.subList(from, Math.min(from + RentalSketchRefresher.PAGE_SIZE, rentals.size())));
+        }
+        sketches.markLoaded();
+    }
+
+    @Benchmark
+    public DistinctClientsEstimate distinctClientsOfBrand() {
+        return sketches.distinctClients(null, "Toyota");
+    }
+
+    @Benchmark
+    public DistributionEstimate rentalLength() {
+        return sketches.rentalLength(null);
+    }
+
+    @Benchmark
+    public OccupancyEstimate occupancy() {
+        return sketches.occupancy(Fixtures.WINDOW_START, Fixtures.WINDOW_END, null);
+    }
+
+    @Benchmark
+    public DistributionEstimate monthlyOccupancy() {
+        return sketches.monthlyOccupancy(YearMonth.from(Fixtures.WINDOW_END).minusMonths(11),
+            YearMonth.from(Fixtures.WINDOW_END));
+    }
+}
@@ -0,0 +1,90 @@
+package com.carrental.analyticsservice.sketch;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.benchmarks.Fixtures;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a restart of the approximate mode costs before it can answer, network aside: decoding the whole rental feed
+ * and folding it into new sketches, versus replaying a {@link RentalSnapshot}. {@code gc.alloc.rate.norm} shows the
+ * heap churn of each path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentalSnapshotBenchmark {
+
+    private static final TypeReference<List<Rental>> RENTAL_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    @Param({"20", "200"})
+    public int rentalsPerCar;
+
+    private ObjectMapper objectMapper;
+    private List<Car> cars;
+    private List<byte[]> pages;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cars = Fixtures.cars(fleetSize);
+        List<Rental> rentals = Fixtures.rentals(fleetSize, rentalsPerCar);
+        pages = new ArrayList<>();
+        file = Files.createTempFile("rentals", ".snapshot");
+        try (RentalSnapshot snapshot = new RentalSnapshot(file)) {
+            for (int from = 0; from < rentals.size(); from += RentalSketchRefresher.PAGE_SIZE) {
+                List<Rental> page = rentals.subList(from, Math.min(from + RentalSketchRefresher.PAGE_SIZE,
+                    rentals.size()));
+                pages.add(objectMapper.writeValueAsBytes(page));
+                snapshot.append(page);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public RentalSketches restartFromFeed() throws IOException {
+        RentalSketches sketches = newSketches();
+        for (byte[] page : pages) {
+            sketches.addAll(objectMapper.readValue(page, RENTAL_LIST));
+        }
+        return sketches;
+    }
+
+    @Benchmark
+    public RentalSketches restartFromSnapshot() throws IOException {
+        RentalSketches sketches = newSketches();
+        try (RentalSnapshot snapshot = new RentalSnapshot(file)) {
+            sketches.addAll(snapshot);
+        }
+        return sketches;
+    }
+
+    private RentalSketches newSketches() {
+        RentalSketches sketches = new RentalSketches(11, 200, 8192, 1000);
+        sketches.updateCars(cars);
+        return sketches;
+    }
+}
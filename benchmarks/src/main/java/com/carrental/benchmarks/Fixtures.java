@@ -0,0 +1,66 @@
+package com.carrental.benchmarks;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic data generators shared by the benchmarks.
+ * A fixed seed keeps fleets and rental calendars identical between runs so results stay comparable.
+ */
+public final class Fixtures {
+
+    public static final LocalDate WINDOW_END = LocalDate.of(2025, 6, 30);
+    public static final LocalDate WINDOW_START = WINDOW_END.minusDays(30);
+
+    private static final String[] BRANDS = {"Toyota", "Honda", "Ford", "BMW", "Mercedes-Benz", "Tesla"};
+    private static final String[] STATUSES = {"ACTIVE", "COMPLETED", "COMPLETED", "CANCELLED"};
+
+    private Fixtures() {
+    }
+
+    public static List<Car> cars(int fleetSize) {
+        List<Car> cars = new ArrayList<>(fleetSize);
+        for (int i = 1; i <= fleetSize; i++) {
+            Car car = new Car();
+            car.setId((long) i);
+            car.setBrand(BRANDS[i % BRANDS.length]);
+            car.setModel("Model " + (i % 17));
+            car.setYear(2018 + i % 7);
+            car.setStatus(i % 5 == 0 ? "MAINTENANCE" : "AVAILABLE");
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    /**
+     * Generate {@code rentalsPerCar} rentals per car, spread over roughly three months around the
+     * analytics window so that a realistic share of them overlaps it.
+     */
+    public static List<Rental> rentals(int fleetSize, int rentalsPerCar) {
+        Random random = new Random(42);
+        List<Rental> rentals = new ArrayList<>(fleetSize * rentalsPerCar);
+        long id = 1;
+        for (int car = 1; car <= fleetSize; car++) {
+            for (int r = 0; r < rentalsPerCar; r++) {
+                LocalDate start = WINDOW_START.minusDays(30).plusDays(random.nextInt(90));
+                Rental rental = new Rental();
+                rental.setId(id++);
+                rental.setCarId((long) car);
+                rental.setClientId("client-" + random.nextInt(fleetSize * 4 + 1));
+                rental.setStartDate(start);
+                rental.setEndDate(start.plusDays(1 + random.nextInt(10)));
+                rental.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                // Daily rate derived from the car, not drawn, so the existing calendars stay the same
+                long days = rental.getEndDate().toEpochDay() - start.toEpochDay() + 1;
+                rental.setTotalAmount(days * (40.0 + 10.0 * (car % 6)));
+                rentals.add(rental);
+            }
+        }
+        return rentals;
+    }
+}
@@ -0,0 +1,81 @@
+package com.carrental.benchmarks;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.OccupancyRate;
+import com.carrental.analyticsservice.dto.Rental;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the DTOs exchanged between services.
+ * Uses the same {@link ObjectMapper} configuration as Spring Boot's HTTP message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<List<Rental>> RENTAL_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Car>> CAR_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Rental> rentals;
+    private List<Car> cars;
+    private List<OccupancyRate> occupancyRates;
+    private byte[] rentalsJson;
+    private byte[] carsJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cars = Fixtures.cars(size);
+        rentals = Fixtures.rentals(size, 1);
+        occupancyRates = new ArrayList<>(size);
+        for (Car car : cars) {
+            occupancyRates.add(new OccupancyRate(car.getId(), car.getBrand(), car.getModel(), car.getYear(),
+                31L, 12L, 38.71, 2));
+        }
+        rentalsJson = objectMapper.writeValueAsBytes(rentals);
+        carsJson = objectMapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public byte[] serializeRentals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rentals);
+    }
+
+    @Benchmark
+    public List<Rental> deserializeRentals() throws Exception {
+        return objectMapper.readValue(rentalsJson, RENTAL_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializeCars() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public List<Car> deserializeCars() throws Exception {
+        return objectMapper.readValue(carsJson, CAR_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializeOccupancyRates() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(occupancyRates);
+    }
+}
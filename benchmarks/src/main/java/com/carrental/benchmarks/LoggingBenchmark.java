@@ -0,0 +1,163 @@
+package com.carrental.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.carrental.common.logging.LogSamplingTurboFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per log call on the request thread for the logging setups used by the services.
+ * Appenders write to a null stream so only formatting and hand-off are measured, not the terminal.
+ *
+ * <ul>
+ *     <li>{@code syncPattern} - previous setup: text pattern encoded synchronously on the caller thread</li>
+ *     <li>{@code syncJson} - JSON encoding cost, paid by the async worker thread in the current setup</li>
+ *     <li>{@code asyncJson} - current setup: JSON encoder behind a non-blocking {@link AsyncAppender}; this is the
+ *     hand-off cost on the caller thread (at JMH's saturating rate the queue fills and surplus events are dropped,
+ *     exactly as in production under overload)</li>
+ *     <li>{@code sampledSql} - SQL logger at DEBUG behind {@link LogSamplingTurboFilter} (1 in 100)</li>
+ *     <li>{@code disabled} - level check only</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String SQL = "select r1_0.id,r1_0.car_id,r1_0.client_id,r1_0.end_date,r1_0.start_date,"
+        + "r1_0.status from rentals r1_0 where r1_0.car_id=? and r1_0.status='ACTIVE' "
+        + "and r1_0.start_date<=? and r1_0.end_date>=?";
+
+    private LoggerContext syncContext;
+    private LoggerContext jsonContext;
+    private LoggerContext asyncContext;
+    private LoggerContext sampledContext;
+    private Logger syncLogger;
+    private Logger jsonLogger;
+    private Logger asyncLogger;
+    private Logger sampledLogger;
+    private Logger disabledLogger;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        syncContext = newContext();
+        PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+        pattern.setContext(syncContext);
+        pattern.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %t %logger{39} : %m%n");
+        pattern.start();
+        syncLogger = rootWith(syncContext, nullAppender(syncContext, pattern), "org.hibernate.SQL");
+
+        jsonContext = newContext();
+        jsonLogger = rootWith(jsonContext, nullAppender(jsonContext, jsonEncoder(jsonContext)),
+            "com.carrental.rentalservice.service.RentalService");
+
+        asyncContext = newContext();
+        asyncLogger = rootWith(asyncContext, asyncJsonAppender(asyncContext), "com.carrental.rentalservice.service.RentalService");
+
+        sampledContext = newContext();
+        LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+        sampling.setLoggers("org.hibernate.SQL");
+        sampling.setOneIn(100);
+        sampling.setContext(sampledContext);
+        sampling.start();
+        sampledContext.addTurboFilter(sampling);
+        sampledLogger = rootWith(sampledContext, asyncJsonAppender(sampledContext), "org.hibernate.SQL");
+        sampledLogger.setLevel(Level.DEBUG);
+
+        disabledLogger = syncContext.getLogger("org.hibernate.SQL.disabled");
+        disabledLogger.setLevel(Level.INFO);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        syncContext.stop();
+        jsonContext.stop();
+        asyncContext.stop();
+        sampledContext.stop();
+    }
+
+    @Benchmark
+    public void syncPattern() {
+        syncLogger.info(SQL);
+    }
+
+    @Benchmark
+    public void syncJson() {
+        jsonLogger.info("Rental {} created for car {}", 42L, 7L);
+    }
+
+    @Benchmark
+    public void asyncJson() {
+        asyncLogger.info("Rental {} created for car {}", 42L, 7L);
+    }
+
+    @Benchmark
+    public void sampledSql() {
+        if (sampledLogger.isDebugEnabled()) {
+            sampledLogger.debug(SQL);
+        }
+    }
+
+    @Benchmark
+    public void disabled() {
+        if (disabledLogger.isDebugEnabled()) {
+            disabledLogger.debug(SQL);
+        }
+    }
+
+    private static LoggerContext newContext() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+
+    private static Logger rootWith(LoggerContext context, Appender<ILoggingEvent> appender, String name) {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        return context.getLogger(name);
+    }
+
+    private static AsyncAppender asyncJsonAppender(LoggerContext context) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(nullAppender(context, jsonEncoder(context)));
+        async.start();
+        return async;
+    }
+
+    private static LogstashEncoder jsonEncoder(LoggerContext context) {
+        LogstashEncoder json = new LogstashEncoder();
+        json.setContext(context);
+        json.start();
+        return json;
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> nullAppender(LoggerContext context, Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,180 @@
+package com.carrental.benchmarks;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time-to-first-request of each service, standard build vs. startup-optimized build.
+ *
+ * <p>Each run starts the service in a fresh JVM and polls one of its endpoints until a response arrives;
+ * the time from process launch to that response is recorded. JMH is not used: the measured unit is a whole
+ * process, not a method.</p>
+ *
+ * <ul>
+ *     <li>{@code standard} - executable jar from {@code mvn package}</li>
+ *     <li>{@code fast-startup} - AOT-processed classes and AppCDS archive from {@code mvn package -Pfast-startup}</li>
+ * </ul>
+ *
+ * <p>Options: {@code --services=car-service,rental-service,payment-service,analytics-service},
+ * {@code --modes=standard,fast-startup}, {@code --runs=3}, {@code --timeout=180s}, {@code --root=.}
+ * (directory containing the service modules).</p>
+ */
+public final class StartupBenchmark {
+
+    private static final Map<String, ServiceUnderTest> SERVICES = Map.of(
+        "car-service", new ServiceUnderTest(8081, "/api/cars"),
+        "rental-service", new ServiceUnderTest(8082, "/api/rentals"),
+        "payment-service", new ServiceUnderTest(8083, "/api/payments/health"),
+        // Any response counts, so occupancy is probed even if car-service and rental-service are not running
+        "analytics-service", new ServiceUnderTest(8084, "/api/analytics/occupancy"));
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<String> services = List.of(options.getOrDefault("services", String.join(",",
+            "car-service", "rental-service", "payment-service", "analytics-service")).split(","));
+        List<String> modes = List.of(options.getOrDefault("modes", "standard,fast-startup").split(","));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "180s").replace("s", "")));
+        Path root = Path.of(options.getOrDefault("root", "."));
+
+        StartupBenchmark benchmark = new StartupBenchmark();
+        System.out.printf("%-18s %-13s %8s %8s %8s   (time to first response, ms, %d runs)%n",
+            "service", "mode", "min", "median", "max", runs);
+        for (String service : services) {
+            ServiceUnderTest target = SERVICES.get(service);
+            if (target == null) {
+                throw new IllegalArgumentException("Unknown service: " + service + " (expected one of " + SERVICES.keySet() + ")");
+            }
+            for (String mode : modes) {
+                ProcessBuilder launcher = launcher(root.resolve(service), service, mode);
+                long[] millis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    millis[run] = benchmark.timeToFirstResponse(launcher, target, timeout);
+                }
+                Arrays.sort(millis);
+                System.out.printf("%-18s %-13s %8d %8d %8d%n",
+                    service, mode, millis[0], millis[runs / 2], millis[runs - 1]);
+            }
+        }
+    }
+
+    private long timeToFirstResponse(ProcessBuilder launcher, ServiceUnderTest target, Duration timeout)
+            throws IOException, InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + target.port() + target.probePath()))
+            .timeout(timeout)
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        Process process = launcher.start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with code " + process.exitValue()
+                        + " before answering (is port " + target.port() + " already in use?)");
+                }
+                if (System.nanoTime() - start > timeout.toNanos()) {
+                    throw new IllegalStateException("No response within " + timeout.toSeconds() + " s");
+                }
+                try {
+                    httpClient.send(probe, HttpResponse.BodyHandlers.discarding());
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (ConnectException e) {
+                    Thread.sleep(POLL_INTERVAL.toMillis());
+                }
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static ProcessBuilder launcher(Path module, String service, String mode) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        Path workingDirectory;
+        switch (mode) {
+            case "standard" -> {
+                workingDirectory = module.resolve("target");
+                command.add("-jar");
+                command.add(executableJar(workingDirectory, service).getFileName().toString());
+            }
+            case "fast-startup" -> {
+                // Same invocation as the training run, otherwise the JVM rejects the archive
+                workingDirectory = module.resolve("target").resolve("fast-startup");
+                requireFile(workingDirectory.resolve(service + ".jsa"), "mvn package -Pfast-startup");
+                command.add("-XX:SharedArchiveFile=" + service + ".jsa");
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-jar");
+                command.add(service + ".jar");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode + " (expected standard or fast-startup)");
+        }
+        return new ProcessBuilder(command)
+            .directory(workingDirectory.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+    }
+
+    private static Path executableJar(Path target, String service) throws IOException {
+        requireFile(target, "mvn package");
+        try (Stream<Path> files = Files.list(target)) {
+            // Services with a classifier ship the runnable jar as *-exec.jar next to the plain one
+            List<Path> jars = files
+                .filter(f -> f.getFileName().toString().startsWith(service + "-"))
+                .filter(f -> f.getFileName().toString().endsWith(".jar"))
+                .sorted((a, b) -> Boolean.compare(b.toString().endsWith("-exec.jar"), a.toString().endsWith("-exec.jar")))
+                .toList();
+            if (jars.isEmpty()) {
+                throw new IllegalStateException("No jar for " + service + " in " + target + ", run mvn package first");
+            }
+            return jars.get(0);
+        }
+    }
+
+    private static void requireFile(Path path, String buildCommand) {
+        if (!path.toFile().exists()) {
+            throw new IllegalStateException(path + " not found, run " + buildCommand + " first");
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg + " (expected --name=value)");
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private record ServiceUnderTest(int port, String probePath) {
+    }
+}
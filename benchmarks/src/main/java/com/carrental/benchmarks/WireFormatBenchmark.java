@@ -0,0 +1,79 @@
+package com.carrental.benchmarks;
+
+import com.carrental.analyticsservice.dto.Car;
+import com.carrental.analyticsservice.dto.Rental;
+import com.carrental.common.wireformat.SmileWireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the Smile wire format of the inter-service calls ({@link SmileWireFormat}), on the lists that
+ * analytics-service reads from rental-service and car-service.
+ * The payload size of each format is printed at setup, next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<Rental>> RENTAL_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Car>> CAR_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Rental> rentals;
+    private List<Car> cars;
+    private byte[] rentalsPayload;
+    private byte[] carsPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> new SmileWireFormat(Jackson2ObjectMapperBuilder.json()).objectMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        cars = Fixtures.cars(size);
+        rentals = Fixtures.rentals(size, 1);
+        rentalsPayload = objectMapper.writeValueAsBytes(rentals);
+        carsPayload = objectMapper.writeValueAsBytes(cars);
+        System.out.printf("%n%s payload, %d elements: rentals %d bytes, cars %d bytes%n",
+            format, size, rentalsPayload.length, carsPayload.length);
+    }
+
+    @Benchmark
+    public byte[] serializeRentals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rentals);
+    }
+
+    @Benchmark
+    public List<Rental> deserializeRentals() throws Exception {
+        return objectMapper.readValue(rentalsPayload, RENTAL_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializeCars() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public List<Car> deserializeCars() throws Exception {
+        return objectMapper.readValue(carsPayload, CAR_LIST);
+    }
+}
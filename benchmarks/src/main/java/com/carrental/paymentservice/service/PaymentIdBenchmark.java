@@ -0,0 +1,30 @@
+package com.carrental.paymentservice.service;
+
+import com.carrental.paymentservice.metrics.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the payment id generation in {@link PaymentService}.
+ * {@code processPayment} itself is dominated by its simulated 500 ms delay, so only the id generation is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentIdBenchmark {
+
+    @Param({"stripe", "paypal"})
+    public String paymentMethod;
+
+    private final PaymentService paymentService = new PaymentService(new PaymentMetrics(new SimpleMeterRegistry()));
+
+    @Benchmark
+    public String generatePaymentId() {
+        return paymentService.generatePaymentId(paymentMethod);
+    }
+}
@@ -0,0 +1,48 @@
+package com.carrental.rentalservice.validation;
+
+import com.carrental.rentalservice.dto.RentalRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link DateRangeValidator#isValid}, run once per booking request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateRangeValidatorBenchmark {
+
+    private final DateRangeValidator validator = new DateRangeValidator();
+    private RentalRequest validRequest;
+    private RentalRequest invertedRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validRequest = request(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 8));
+        invertedRequest = request(LocalDate.of(2025, 7, 8), LocalDate.of(2025, 7, 1));
+    }
+
+    @Benchmark
+    public boolean validRange() {
+        return validator.isValid(validRequest, null);
+    }
+
+    @Benchmark
+    public boolean invertedRange() {
+        return validator.isValid(invertedRequest, null);
+    }
+
+    private static RentalRequest request(LocalDate startDate, LocalDate endDate) {
+        RentalRequest request = new RentalRequest();
+        request.setCarId(1L);
+        request.setClientId("client-123");
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        return request;
+    }
+}
@@ -2,6 +2,8 @@ package com.carrental.carservice.config;
 
 import com.carrental.carservice.model.Car;
 import com.carrental.carservice.repository.CarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
@@ -16,6 +18,8 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 @Component
 public class DataInitializer implements ApplicationListener<ApplicationReadyEvent> {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     private final CarRepository carRepository;
     private final PlatformTransactionManager transactionManager;
     private boolean initialized = false;
@@ -40,21 +44,21 @@ public class DataInitializer implements ApplicationListener<ApplicationReadyEven
                 // Initialize sample cars
                 carRepository.save(new Car("Toyota", "Camry", 2023, Car.CarStatus.AVAILABLE, 50.00));
                 carRepository.save(new Car("Honda", "Accord", 2022, Car.CarStatus.AVAILABLE, 45.00));
-                carRepository.save(new Car("Ford", "Mustang", 2023, Car.CarStatus.RENTED, 75.00));
+                carRepository.save(new Car("Ford", "Mustang", 2023, Car.CarStatus.MAINTENANCE, 75.00));
                 carRepository.save(new Car("BMW", "X5", 2023, Car.CarStatus.AVAILABLE, 120.00));
                 carRepository.save(new Car("Mercedes-Benz", "C-Class", 2022, Car.CarStatus.AVAILABLE, 110.00));
                 carRepository.save(new Car("Tesla", "Model 3", 2023, Car.CarStatus.AVAILABLE, 95.00));
                 
                 transactionManager.commit(status);
-                System.out.println("Sample cars initialized in the database.");
+                log.info("Sample cars initialized in the database.");
             } else {
                 transactionManager.commit(status);
-                System.out.println("Database already contains " + count + " cars.");
+                log.info("Database already contains {} cars.", count);
             }
             initialized = true;
         } catch (Exception e) {
             transactionManager.rollback(status);
-            System.err.println("Could not initialize sample data: " + e.getMessage());
+            log.warn("Could not initialize sample data: {}", e.getMessage());
             // Don't fail startup - data can be added manually via REST API
             initialized = true; // Mark as initialized to prevent retries
         }
@@ -0,0 +1,27 @@
+package com.carrental.carservice.config;
+
+import com.carrental.carservice.model.Car;
+import com.carrental.carservice.repository.CarRepository;
+import com.carrental.common.warmup.DatabaseWarmup;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repository queries of car-service run once by the database warm start ({@link DatabaseWarmup}).
+ */
+@Component
+public class DatabaseWarmupQueries implements DatabaseWarmup.Queries {
+
+    private final CarRepository carRepository;
+
+    public DatabaseWarmupQueries(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @Override
+    public String run() {
+        long cars = carRepository.count();
+        carRepository.findByStatus(Car.CarStatus.AVAILABLE);
+        carRepository.findByBrand("");
+        return cars + " cars";
+    }
+}
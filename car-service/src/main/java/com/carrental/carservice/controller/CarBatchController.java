@@ -0,0 +1,48 @@
+package com.carrental.carservice.controller;
+
+import com.carrental.carservice.model.Car;
+import com.carrental.carservice.repository.CarRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Lecture groupée des voitures, en complément des endpoints Spring Data REST.
+ * Une seule requête {@code IN} au lieu d'un GET par voiture ; la réponse est un tableau JSON simple (pas de HAL).
+ */
+@RestController
+@RequestMapping("/api/cars")
+@Tag(name = "Car Batch", description = "Bulk car lookups")
+public class CarBatchController {
+
+    static final int MAX_IDS = 1000;
+
+    private final CarRepository carRepository;
+
+    public CarBatchController(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    /**
+     * Obtenir plusieurs voitures par ID. Les ID inconnus sont ignorés.
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get several cars by id",
+               description = "Returns the cars with the given ids (up to 1000, e.g. ?ids=1,2,3) in one query. "
+                   + "Unknown ids are left out.")
+    public ResponseEntity<List<Car>> getCarsByIds(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_IDS + " car ids per request");
+        }
+        return ResponseEntity.ok(carRepository.findAllById(new LinkedHashSet<>(ids)));
+    }
+}
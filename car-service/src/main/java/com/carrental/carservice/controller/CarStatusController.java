@@ -0,0 +1,61 @@
+package com.carrental.carservice.controller;
+
+import com.carrental.carservice.dto.CarStatusChange;
+import com.carrental.carservice.model.Car;
+import com.carrental.carservice.repository.CarRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+/**
+ * Changements de statut des voitures, en complément des endpoints Spring Data REST.
+ * Chaque changement est une seule requête UPDATE conditionnelle, au lieu d'un GET puis d'un PUT de la voiture
+ * complète qui écraserait une modification concurrente.
+ */
+@RestController
+@RequestMapping("/api/cars")
+@Tag(name = "Car Status", description = "Atomic car status updates")
+public class CarStatusController {
+
+    private final CarRepository carRepository;
+    private final TransactionTemplate transaction;
+
+    public CarStatusController(CarRepository carRepository, PlatformTransactionManager transactionManager) {
+        this.carRepository = carRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Changer le statut d'une voiture (compare-and-set si {@code expectedStatus} est fourni).
+     * Si la voiture n'a plus le statut attendu, rien n'est modifié et la réponse 409 contient le statut actuel.
+     */
+    @PatchMapping("/{id}/status")
+    @Operation(summary = "Change the status of a car",
+               description = "Sets the status in one conditional UPDATE. With expectedStatus, the change only "
+                   + "applies if the car still has that status; otherwise 409 with the current status.")
+    public ResponseEntity<Map<String, Object>> changeStatus(@PathVariable Long id,
+                                                            @Valid @RequestBody CarStatusChange change) {
+        Integer updated = transaction.execute(status -> change.getExpectedStatus() == null
+            ? carRepository.setStatus(id, change.getStatus())
+            : carRepository.compareAndSetStatus(id, change.getExpectedStatus(), change.getStatus()));
+        if (updated == 1) {
+            return ResponseEntity.ok(Map.of("id", id, "status", change.getStatus()));
+        }
+        // Échec : voiture inconnue, ou statut modifié entre-temps (seul cas où le statut est relu)
+        Car.CarStatus current = carRepository.findStatusById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Car not found with ID: " + id));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("id", id, "status", current));
+    }
+}
@@ -0,0 +1,40 @@
+package com.carrental.carservice.dto;
+
+import com.carrental.carservice.model.Car;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO pour le changement de statut d'une voiture (compare-and-set).
+ * Si {@code expectedStatus} est fourni, le changement ne s'applique que si la voiture a encore ce statut.
+ */
+public class CarStatusChange {
+
+    @NotNull(message = "Status is required")
+    private Car.CarStatus status;
+
+    private Car.CarStatus expectedStatus;
+
+    public CarStatusChange() {
+    }
+
+    public CarStatusChange(Car.CarStatus status, Car.CarStatus expectedStatus) {
+        this.status = status;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public Car.CarStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Car.CarStatus status) {
+        this.status = status;
+    }
+
+    public Car.CarStatus getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    public void setExpectedStatus(Car.CarStatus expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+}
@@ -99,11 +99,16 @@ public class Car {
     }
 
     /**
-     * Énumération pour le statut de disponibilité de la voiture.
+     * Statut d'exploitation de la voiture.
+     * Il ne dit pas si la voiture est louée : la disponibilité pour des dates est calculée par rental-service à
+     * partir du calendrier des locations. Seule une voiture AVAILABLE peut être réservée.
      */
     public enum CarStatus {
         AVAILABLE,
-        RENTED
+        /** Immobilisée temporairement (entretien, réparation) */
+        MAINTENANCE,
+        /** Retirée de la flotte */
+        OUT_OF_SERVICE
     }
 }
 
@@ -2,11 +2,14 @@ package com.carrental.carservice.repository;
 
 import com.carrental.carservice.model.Car;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository Spring Data REST pour les entités de voiture.
@@ -28,5 +31,33 @@ public interface CarRepository extends JpaRepository<Car, Long> {
      */
     @RestResource(path = "brand", rel = "brand")
     List<Car> findByBrand(@Param("brand") String brand);
-}
 
+    /**
+     * Changer le statut d'une voiture seulement si elle a encore le statut attendu (compare-and-set).
+     * Non exposé par Spring Data REST : utilisé par PATCH /api/cars/{id}/status.
+     *
+     * @return 1 si le statut a été changé, 0 si la voiture n'existe pas ou n'a plus le statut attendu
+     */
+    @RestResource(exported = false)
+    @Modifying
+    @Query("UPDATE Car c SET c.status = :status WHERE c.id = :id AND c.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") Car.CarStatus expected,
+                            @Param("status") Car.CarStatus status);
+
+    /**
+     * Changer le statut d'une voiture sans condition.
+     *
+     * @return 1 si la voiture existe, 0 sinon
+     */
+    @RestResource(exported = false)
+    @Modifying
+    @Query("UPDATE Car c SET c.status = :status WHERE c.id = :id")
+    int setStatus(@Param("id") Long id, @Param("status") Car.CarStatus status);
+
+    /**
+     * Lire le statut d'une voiture, sans charger l'entité.
+     */
+    @RestResource(exported = false)
+    @Query("SELECT c.status FROM Car c WHERE c.id = :id")
+    Optional<Car.CarStatus> findStatusById(@Param("id") Long id);
+}
@@ -0,0 +1,12 @@
+-- Cars table (H2 and PostgreSQL compatible)
+CREATE TABLE cars (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    brand VARCHAR(255) NOT NULL,
+    model VARCHAR(255) NOT NULL,
+    car_year INTEGER NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    price_per_day DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX idx_cars_status ON cars (status);
+CREATE INDEX idx_cars_brand ON cars (brand);
@@ -0,0 +1,3 @@
+-- Car status is operational only (AVAILABLE, MAINTENANCE, OUT_OF_SERVICE); whether a car is rented on given dates
+-- comes from the rental calendar in rental-service. Cars marked RENTED by earlier bookings are bookable again.
+UPDATE cars SET status = 'AVAILABLE' WHERE status = 'RENTED';
@@ -0,0 +1,29 @@
+package com.carrental.common.config;
+
+import com.carrental.common.warmup.DatabaseWarmup;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Database warm start of the services with a database, enabled with database.warm-start.enabled=true.
+ * The queries to run are the {@link DatabaseWarmup.Queries} beans of the service.
+ */
+@AutoConfiguration(after = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnBean(DataSource.class)
+@ConditionalOnProperty(name = "database.warm-start.enabled", havingValue = "true")
+public class DatabaseWarmupConfig {
+
+    @Bean
+    public DatabaseWarmup databaseWarmup(DataSource dataSource, List<DatabaseWarmup.Queries> queries) {
+        return new DatabaseWarmup(dataSource, queries);
+    }
+}
@@ -0,0 +1,65 @@
+package com.carrental.common.config;
+
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Pooled Apache HttpClient 5 behind the Feign clients of the services that have feign-hc5 (rental-service,
+ * analytics-service), instead of Feign's default {@code HttpURLConnection} client. Pool sizes and timeouts are the
+ * {@code spring.cloud.openfeign.httpclient.*} properties; responses compressed by the server are decompressed by the
+ * client, which sends {@code Accept-Encoding: gzip, x-gzip, deflate}.
+ * <ul>
+ *   <li>{@code httpcomponents.httpclient.pool.*}: connections leased and available, callers waiting for one</li>
+ *   <li>{@code http.client.connection.requests{connection=new|reused}}: requests sent on a freshly opened
+ *   connection or on a kept-alive one</li>
+ * </ul>
+ */
+@AutoConfiguration(after = FeignAutoConfiguration.class)
+@ConditionalOnClass({ApacheHttp5Client.class, MeterRegistry.class})
+@ConditionalOnBean(HttpClientConnectionManager.class)
+public class FeignHttpClientConfig {
+
+    private static final String POOL_NAME = "feign";
+
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(HttpClientConnectionManager connectionManager) {
+        return registry -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, POOL_NAME).bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public HttpClientBuilderCustomizer connectionReuseMetrics(MeterRegistry meterRegistry) {
+        Counter newConnection = connectionRequests(meterRegistry, "new");
+        Counter reusedConnection = connectionRequests(meterRegistry, "reused");
+        return builder -> builder.addResponseInterceptorLast((response, entity, context) -> {
+            EndpointDetails endpoint = HttpClientContext.adapt(context).getEndpointDetails();
+            if (endpoint != null) {
+                (endpoint.getRequestCount() > 1 ? reusedConnection : newConnection).increment();
+            }
+        });
+    }
+
+    private static Counter connectionRequests(MeterRegistry meterRegistry, String connection) {
+        return Counter.builder("http.client.connection.requests")
+            .description("Feign requests by connection: freshly opened or kept alive")
+            .tag("client", POOL_NAME)
+            .tag("connection", connection)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.carrental.common.config;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Tracing export configuration of the services.
+ * Spans go to a local OTLP collector when management.otlp.tracing.endpoint is set,
+ * and to the application log when tracing.export.log.enabled=true.
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggingSpanExporter.class)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.export.log.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,89 @@
+package com.carrental.common.config;
+
+import com.carrental.common.wireformat.SmileWireFormat;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Set;
+
+/**
+ * Smile wire format (see {@link SmileWireFormat}) of the services that have jackson-dataformat-smile.
+ * <ul>
+ *   <li>Server: the Smile converter takes the place of Spring's default one, after the JSON converter, so
+ *   {@code Accept: *}{@code /*} and clients without an {@code Accept} header still get JSON.</li>
+ *   <li>WebClient: with {@code wire-format.smile.enabled=true}, responses are asked for in Smile, JSON being
+ *   accepted as well. Request bodies stay JSON, their content type is set by the caller.</li>
+ *   <li>Feign: with {@code wire-format.smile.enabled=true}, calls to the services listed in
+ *   {@code wire-format.smile.services} ask for Smile. car-service is never listed: Spring Data REST does not
+ *   produce it.</li>
+ * </ul>
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = HttpMessageConvertersAutoConfiguration.class)
+@ConditionalOnClass({SmileFactory.class, Jackson2ObjectMapperBuilder.class})
+public class WireFormatConfig {
+
+    @Bean
+    public SmileWireFormat smileWireFormat(Jackson2ObjectMapperBuilder builder) {
+        return new SmileWireFormat(builder);
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(SmileWireFormat smileWireFormat) {
+        return smileWireFormat.httpMessageConverter();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(WebClient.class)
+    static class WebClientWireFormatConfig {
+
+        @Bean
+        CodecCustomizer smileCodecCustomizer(SmileWireFormat smileWireFormat) {
+            // Without explicit MIME types the Smile codecs would fall back to the JSON ones
+            return configurer -> {
+                configurer.defaultCodecs().jackson2SmileDecoder(
+                    new Jackson2SmileDecoder(smileWireFormat.objectMapper(), SmileWireFormat.MEDIA_TYPE));
+                configurer.defaultCodecs().jackson2SmileEncoder(
+                    new Jackson2SmileEncoder(smileWireFormat.objectMapper(), SmileWireFormat.MEDIA_TYPE));
+            };
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "wire-format.smile.enabled", havingValue = "true")
+        WebClientCustomizer smileAcceptWebClientCustomizer() {
+            return builder -> builder.defaultHeader(HttpHeaders.ACCEPT, SmileWireFormat.ACCEPT);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    @ConditionalOnProperty(name = "wire-format.smile.enabled", havingValue = "true")
+    static class FeignWireFormatConfig {
+
+        @Bean
+        RequestInterceptor smileAcceptRequestInterceptor(
+                @Value("${wire-format.smile.services:}") Set<String> services) {
+            return template -> {
+                if (services.contains(template.feignTarget().name())
+                        && !template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                    template.header(HttpHeaders.ACCEPT, SmileWireFormat.ACCEPT);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.carrental.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mémoire des clés {@code Idempotency-Key} : chaque clé est associée au résultat de la première requête qui l'a
+ * utilisée.
+ *
+ * <ul>
+ *     <li>Une clé nouvelle exécute l'action et retient son issue</li>
+ *     <li>Une clé répétée renvoie l'issue retenue sans exécuter l'action une seconde fois</li>
+ *     <li>Une clé répétée pendant que la première requête s'exécute attend cette requête et reçoit son issue, au plus
+ *     {@code waitTimeout} (409 ensuite)</li>
+ *     <li>Une clé répétée avec une requête différente (autre empreinte) est refusée (422)</li>
+ * </ul>
+ *
+ * <p>Issues retenues : tout résultat, y compris un échec métier (paiement refusé...), et les erreurs client
+ * ({@link ResponseStatusException} 4xx), relancées telles quelles. Seules les erreurs qui n'engagent rien (409,
+ * qui signale une opération concurrente, 5xx, exception inattendue) sont oubliées : les doublons concurrents les
+ * reçoivent, mais une nouvelle tentative exécute l'action.</p>
+ *
+ * <p>Un résultat provisoire ({@code isFinal} faux, p. ex. une location encore PENDING) est retenu, mais relu par
+ * {@code refresh} à chaque répétition : la répétition voit l'état courant sans exécuter l'action, et le premier état
+ * définitif remplace le résultat retenu.</p>
+ *
+ * <p>La mémoire est propre à l'instance : au plus {@code maxEntries} clés, chacune oubliée {@code ttl} après sa
+ * première utilisation. Un service qui doit reconnaître une clé sur toutes ses instances et après un redémarrage la
+ * garde aussi en base (action elle-même idempotente).</p>
+ *
+ * @param <V> résultat de l'action protégée
+ */
+public class IdempotencyStore<V> {
+
+    private final Cache<String, Entry<V>> entries;
+    private final Duration waitTimeout;
+    private final Predicate<V> isFinal;
+    private final UnaryOperator<V> refresh;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+
+    /**
+     * Mémoire dont tous les résultats sont définitifs.
+     */
+    public IdempotencyStore(String name, Duration ttl, long maxEntries, Duration waitTimeout, MeterRegistry registry) {
+        this(name, ttl, maxEntries, waitTimeout, result -> true, UnaryOperator.identity(), registry);
+    }
+
+    /**
+     * @param isFinal indique si un résultat est définitif
+     * @param refresh relit l'état courant d'un résultat provisoire ; peut lever l'erreur qu'il est devenu
+     */
+    public IdempotencyStore(String name, Duration ttl, long maxEntries, Duration waitTimeout,
+                            Predicate<V> isFinal, UnaryOperator<V> refresh, MeterRegistry registry) {
+        this.entries = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxEntries)
+            .build();
+        this.waitTimeout = waitTimeout;
+        this.isFinal = isFinal;
+        this.refresh = refresh;
+        this.executed = counter(registry, name, "executed");
+        this.replayed = counter(registry, name, "replayed");
+        this.joined = counter(registry, name, "joined");
+        Gauge.builder("idempotency.keys", entries, Cache::estimatedSize)
+            .description("Idempotency keys currently remembered")
+            .tag("store", name)
+            .register(registry);
+    }
+
+    /**
+     * Exécuter {@code action} une seule fois par clé.
+     *
+     * @param key         clé d'idempotence fournie par le client
+     * @param fingerprint champs qui identifient la requête ; une clé répétée doit venir avec une empreinte égale
+     * @param action      opération non idempotente
+     * @return le résultat de la première requête qui a utilisé {@code key}, relu s'il était provisoire
+     */
+    public V execute(String key, List<?> fingerprint, Supplier<V> action) {
+        Entry<V> entry = new Entry<>(fingerprint, new CompletableFuture<>());
+        Entry<V> existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing == null) {
+            executed.increment();
+            try {
+                V result = action.get();
+                entry.result().complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                if (!isRemembered(e)) {
+                    entries.asMap().remove(key, entry);
+                }
+                entry.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency key was already used for a different request");
+        }
+        (existing.result().isDone() ? replayed : joined).increment();
+        V result = await(existing.result());
+        return isFinal.test(result) ? result : refresh(key, existing, result);
+    }
+
+    /**
+     * Relire un résultat provisoire ; un état définitif, ou une erreur retenue, remplace l'entrée.
+     */
+    private V refresh(String key, Entry<V> existing, V provisional) {
+        Entry<V> settled = new Entry<>(existing.fingerprint(), new CompletableFuture<>());
+        try {
+            V current = refresh.apply(provisional);
+            if (isFinal.test(current)) {
+                settled.result().complete(current);
+                entries.asMap().replace(key, existing, settled);
+            }
+            return current;
+        } catch (RuntimeException e) {
+            if (isRemembered(e)) {
+                settled.result().completeExceptionally(e);
+                entries.asMap().replace(key, existing, settled);
+            }
+            throw e;
+        }
+    }
+
+    private V await(CompletableFuture<V> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Le doublon reçoit la même erreur que la requête qu'il a attendue
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with the same idempotency key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for a duplicate request");
+        }
+    }
+
+    /**
+     * Erreur client définitive : la même requête échouerait de la même façon.
+     */
+    private static boolean isRemembered(Throwable e) {
+        return e instanceof ResponseStatusException status && status.getStatusCode().is4xxClientError()
+            && status.getStatusCode().value() != HttpStatus.CONFLICT.value();
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("idempotency.requests")
+            .description("Requests carrying an idempotency key, by outcome")
+            .tag("store", name)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private record Entry<V>(List<?> fingerprint, CompletableFuture<V> result) {
+    }
+}
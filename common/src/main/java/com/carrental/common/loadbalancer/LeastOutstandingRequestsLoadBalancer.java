@@ -0,0 +1,193 @@
+package com.carrental.common.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the instance with the fewest requests in flight from this client.
+ *
+ * <p>The candidates are the instances that passed the last active health check. On top of that, an instance whose
+ * last {@code ejectAfterFailures} calls failed at the transport level (connection refused, timeout) or with 503 is
+ * ejected for {@code ejectionDuration}, so a dead instance stops receiving traffic before the next health check.
+ * If every instance is ejected they are all used again rather than failing every call.</p>
+ *
+ * <p>Also registered as the {@link LoadBalancerLifecycle} of its client, which is how it learns when a request
+ * starts and completes. Ties are broken by rotating the starting point, so an idle pool is used round-robin.</p>
+ */
+public class LeastOutstandingRequestsLoadBalancer
+        implements ReactorServiceInstanceLoadBalancer, LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(LeastOutstandingRequestsLoadBalancer.class);
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> instanceListSupplier;
+    private final MeterRegistry meterRegistry;
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final ConcurrentHashMap<String, InstanceState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public LeastOutstandingRequestsLoadBalancer(String serviceId,
+                                                ObjectProvider<ServiceInstanceListSupplier> instanceListSupplier,
+                                                MeterRegistry meterRegistry,
+                                                int ejectAfterFailures,
+                                                Duration ejectionDuration) {
+        this.serviceId = serviceId;
+        this.instanceListSupplier = instanceListSupplier;
+        this.meterRegistry = meterRegistry;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectionNanos = ejectionDuration.toNanos();
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = instanceListSupplier.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::select);
+    }
+
+    private Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No healthy instance of {}", serviceId);
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        ServiceInstance selected = leastOutstanding(instances, now, false);
+        if (selected == null) {
+            selected = leastOutstanding(instances, now, true);
+        }
+        return new DefaultResponse(selected);
+    }
+
+    private ServiceInstance leastOutstanding(List<ServiceInstance> instances, long now, boolean includeEjected) {
+        int size = instances.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        ServiceInstance best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance instance = instances.get((start + i) % size);
+            InstanceState state = state(instance);
+            if (!includeEjected && state.isEjected(now)) {
+                continue;
+            }
+            int outstanding = state.outstanding.get();
+            if (outstanding < bestOutstanding) {
+                best = instance;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing to do before an instance is chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            state(lbResponse.getServer()).outstanding.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceState state = state(lbResponse.getServer());
+        state.outstanding.decrementAndGet();
+        if (isFailure(completionContext)) {
+            state.failed(System.nanoTime());
+        } else {
+            state.consecutiveFailures.set(0);
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+            && response.getHttpStatus() != null
+            && response.getHttpStatus().value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private InstanceState state(ServiceInstance instance) {
+        return states.computeIfAbsent(instance.getHost() + ":" + instance.getPort(), key -> new InstanceState(instance));
+    }
+
+    /**
+     * Requests in flight and failure streak of one instance, with its gauges.
+     */
+    private final class InstanceState {
+
+        private final String address;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final Counter ejections;
+        private volatile long ejectedUntil = System.nanoTime();
+
+        private InstanceState(ServiceInstance instance) {
+            this.address = instance.getHost() + ":" + instance.getPort();
+            Tags tags = Tags.of("serviceId", serviceId,
+                "serviceInstance.host", instance.getHost(),
+                "serviceInstance.port", String.valueOf(instance.getPort()));
+            Gauge.builder("loadbalancer.instance.outstanding", outstanding, AtomicInteger::get)
+                .description("Requests in flight to the instance, used to pick the least loaded one")
+                .tags(tags)
+                .register(meterRegistry);
+            Gauge.builder("loadbalancer.instance.ejected", this, state -> state.isEjected(System.nanoTime()) ? 1 : 0)
+                .description("1 while the instance is ejected after consecutive failures")
+                .tags(tags)
+                .register(meterRegistry);
+            this.ejections = Counter.builder("loadbalancer.instance.ejections")
+                .description("Times the instance was ejected after consecutive failures")
+                .tags(tags)
+                .register(meterRegistry);
+        }
+
+        private boolean isEjected(long now) {
+            return now - ejectedUntil < 0;
+        }
+
+        private void failed(long now) {
+            if (consecutiveFailures.incrementAndGet() >= ejectAfterFailures && !isEjected(now)) {
+                consecutiveFailures.set(0);
+                ejectedUntil = now + ejectionNanos;
+                ejections.increment();
+                log.warn("Ejecting {} instance {} for {} ms after {} consecutive failures",
+                    serviceId, address, ejectionNanos / 1_000_000, ejectAfterFailures);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.carrental.common.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Load-balancer configuration of each downstream service (car-service, payment-service, rental-service), created
+ * in the child context Spring Cloud LoadBalancer keeps per service.
+ *
+ * <ul>
+ *     <li>instances: the static list {@code spring.cloud.discovery.client.simple.instances.<service>[n].uri},
+ *     optionally imported from a file (see application.properties)</li>
+ *     <li>active health checks: every instance is polled on
+ *     {@code spring.cloud.loadbalancer.health-check.path}; instances that fail are left out until they pass again</li>
+ *     <li>selection: {@link LeastOutstandingRequestsLoadBalancer}, with passive ejection after consecutive failures</li>
+ * </ul>
+ *
+ * <p>Deliberately not a {@code @Configuration} nor an auto-configuration: it must only be registered through
+ * {@code @LoadBalancerClients}, otherwise its beans would be shared by all services.</p>
+ */
+public class LoadBalancedClientConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier healthCheckedInstanceListSupplier(ConfigurableApplicationContext context,
+                                                                         RestTemplateBuilder restTemplateBuilder) {
+        return ServiceInstanceListSupplier.builder()
+            .withBlockingDiscoveryClient()
+            .withBlockingHealthChecks(restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(1))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build())
+            .build(context);
+    }
+
+    /**
+     * Declared with its concrete type so that it is also found as the {@code LoadBalancerLifecycle} of the client.
+     */
+    @Bean
+    public LeastOutstandingRequestsLoadBalancer leastOutstandingRequestsLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            MeterRegistry meterRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        // The child context has no Boot conversion service, so "10s" is parsed here
+        int ejectAfterFailures = environment.getProperty("loadbalancer.ejection.consecutive-failures", Integer.class, 3);
+        Duration ejectionDuration = DurationStyle.detectAndParse(
+            environment.getProperty("loadbalancer.ejection.duration", "10s"));
+        return new LeastOutstandingRequestsLoadBalancer(serviceId,
+            loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+            meterRegistry, ejectAfterFailures, ejectionDuration);
+    }
+}
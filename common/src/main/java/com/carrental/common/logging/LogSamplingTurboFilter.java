@@ -0,0 +1,57 @@
+package com.carrental.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Filtre Logback qui ne laisse passer qu'un événement sur N pour les loggers configurés.
+ *
+ * <p>Le tirage porte sur l'appel de log et non sur {@code isDebugEnabled()} : Hibernate et JBoss Logging
+ * testent le niveau plusieurs fois par requête SQL, un tirage à chaque test fausserait le taux.
+ * Les événements écartés ne sont ni encodés ni écrits.</p>
+ *
+ * <pre>{@code
+ * <turboFilter class="com.carrental.common.logging.LogSamplingTurboFilter">
+ *     <loggers>org.hibernate.SQL</loggers>
+ *     <oneIn>100</oneIn>
+ * </turboFilter>
+ * }</pre>
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private Set<String> loggers = Set.of();
+    private int oneIn = 1;
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public void setOneIn(int oneIn) {
+        this.oneIn = Math.max(1, oneIn);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null : simple test isXxxEnabled(), le tirage se fait sur l'appel de log lui-même
+        if (format == null || oneIn == 1 || !loggers.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return sample() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean sample() {
+        return counter.getAndIncrement() % oneIn == 0;
+    }
+}
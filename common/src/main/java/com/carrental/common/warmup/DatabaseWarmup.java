@@ -0,0 +1,88 @@
+package com.carrental.common.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-start routine for the database.
+ * Waits until the connection pool is filled and runs the {@link Queries} of the service once, so that Hibernate has
+ * compiled the query plans and the database has loaded its pages before the first request is served.
+ * Runs as an {@link ApplicationRunner}, i.e. before the application is reported ready, and before the other warmups.
+ */
+@Order(0)
+public class DatabaseWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseWarmup.class);
+
+    private static final long POOL_FILL_TIMEOUT_MILLIS = 5_000;
+
+    private final DataSource dataSource;
+    private final List<Queries> queries;
+
+    public DatabaseWarmup(DataSource dataSource, List<Queries> queries) {
+        this.dataSource = dataSource;
+        this.queries = queries;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            List<String> loaded = new ArrayList<>();
+            for (Queries service : queries) {
+                loaded.add(service.run());
+            }
+            int connections = awaitPoolFilled();
+            log.info("Database warm start completed in {} ms ({}, {} pooled connections)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), String.join(", ", loaded), connections);
+        } catch (RuntimeException e) {
+            // Don't fail startup - the service still works, only the first requests are slower
+            log.warn("Database warm start failed: {}", e.getMessage());
+        }
+    }
+
+    private int awaitPoolFilled() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return -1;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            long deadline = System.currentTimeMillis() + POOL_FILL_TIMEOUT_MILLIS;
+            while (pool.getTotalConnections() < hikari.getMinimumIdle() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return pool.getTotalConnections();
+        } catch (SQLException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * The main queries of a service, declared as a bean.
+     */
+    @FunctionalInterface
+    public interface Queries {
+
+        /**
+         * Run each query once.
+         *
+         * @return what was read, for the log, e.g. {@code "42 cars"}
+         */
+        String run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.carrental.common.warmup;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Loopback HTTP server standing in for the downstream services during a warmup (BookingWarmup in rental-service,
+ * OccupancyWarmup in analytics-service).
+ * Listens on an ephemeral port and answers every route with 200 and a JSON body.
+ */
+public class WarmupStubServer implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY the JDK server adds ~40 ms (Nagle + delayed ACK) to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "warmup-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WarmupStubServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Answer requests under the given path with the body computed from the path and request body.
+     */
+    public WarmupStubServer route(String path, Function<StubRequest, String> handler) {
+        server.createContext(path, exchange -> {
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+            String requestPath = exchange.getRequestURI().getPath();
+            byte[] body = handler.apply(new StubRequest(exchange.getRequestMethod(), requestPath,
+                new String(requestBody, StandardCharsets.UTF_8))).getBytes(StandardCharsets.UTF_8);
+            respond(exchange, body);
+        });
+        return this;
+    }
+
+    public WarmupStubServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public record StubRequest(String method, String path, String body) {
+
+        /**
+         * Numeric last path segment, e.g. 7 for /api/cars/7.
+         */
+        public long trailingId() {
+            return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+        }
+    }
+}
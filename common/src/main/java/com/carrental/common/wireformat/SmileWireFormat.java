@@ -0,0 +1,93 @@
+package com.carrental.common.wireformat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Compact binary wire format for inter-service calls: Jackson Smile, negotiated with {@code Accept}.
+ *
+ * <p>Smile is binary JSON: the same object model and annotations, but numbers are written in binary, and property
+ * names and short string values that repeat in a list (e.g. {@code "status":"ACTIVE"}) are written once and then
+ * back-referenced. {@link LocalDate} values are written as their epoch day (an integer) instead of an ISO string;
+ * ISO strings are still accepted when reading.</p>
+ *
+ * <p>Clients send {@link #ACCEPT}: a server that has the Smile converter answers in Smile, any other one answers
+ * JSON, so both sides can be upgraded independently. Servers only answer Smile when it is asked for.</p>
+ */
+public class SmileWireFormat {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * {@code Accept} header of the clients: Smile preferred, JSON otherwise.
+     */
+    public static final String ACCEPT = MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param builder builder with the application's Jackson settings (modules, features); its factory is replaced
+     */
+    public SmileWireFormat(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        this.objectMapper = builder
+            .factory(factory)
+            .serializerByType(LocalDate.class, new EpochDaySerializer())
+            .deserializerByType(LocalDate.class, new EpochDayDeserializer())
+            .build();
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    public MappingJackson2SmileHttpMessageConverter httpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper);
+    }
+
+    static class EpochDaySerializer extends StdScalarSerializer<LocalDate> {
+
+        EpochDaySerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toEpochDay());
+        }
+    }
+
+    static class EpochDayDeserializer extends StdScalarDeserializer<LocalDate> {
+
+        EpochDayDeserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                return LocalDate.parse(parser.getText().trim());
+            }
+            return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.carrental.common.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final List<Object> FINGERPRINT = List.of("car-1", "client-1");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnce() throws Exception {
+        IdempotencyStore<Integer> store = store(Duration.ofSeconds(10));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int duplicates = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(duplicates);
+        try {
+            Future<Integer> first = pool.submit(() -> store.execute("key", FINGERPRINT, () -> {
+                running.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<Integer>> others = new ArrayList<>();
+            for (int i = 1; i < duplicates; i++) {
+                others.add(pool.submit(() -> store.execute("key", FINGERPRINT, executions::incrementAndGet)));
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            for (Future<Integer> other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("joined") + count("replayed")).isEqualTo(duplicates - 1);
+    }
+
+    @Test
+    void duplicateGivesUpAfterWaitTimeout() throws Exception {
+        IdempotencyStore<Integer> store = store(Duration.ofMillis(50));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = pool.submit(() -> store.execute("key", FINGERPRINT, () -> {
+                running.countDown();
+                await(release);
+                return 1;
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> store.execute("key", FINGERPRINT, () -> 2))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentRequestWithSameKeyIsRejected() {
+        IdempotencyStore<Integer> store = store(Duration.ofSeconds(1));
+        store.execute("key", FINGERPRINT, () -> 1);
+
+        assertThatThrownBy(() -> store.execute("key", List.of("car-2", "client-1"), () -> 2))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void clientErrorIsRememberedAndReplayed() {
+        IdempotencyStore<Integer> store = store(Duration.ofSeconds(1));
+        AtomicInteger executions = new AtomicInteger();
+        Runnable declined = () -> store.execute("key", FINGERPRINT, () -> {
+            executions.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, "declined");
+        });
+
+        assertThatThrownBy(declined::run).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(declined::run)
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYMENT_REQUIRED));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void serverErrorAndConflictAreForgotten() {
+        IdempotencyStore<Integer> store = store(Duration.ofSeconds(1));
+        assertThatThrownBy(() -> store.execute("unavailable", FINGERPRINT, () -> {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        })).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> store.execute("conflict", FINGERPRINT, () -> {
+            throw new ResponseStatusException(HttpStatus.CONFLICT);
+        })).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(store.execute("unavailable", FINGERPRINT, () -> 1)).isEqualTo(1);
+        assertThat(store.execute("conflict", FINGERPRINT, () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    void provisionalResultIsRefreshedUntilFinal() {
+        AtomicInteger state = new AtomicInteger(0);
+        AtomicInteger refreshes = new AtomicInteger();
+        // 0 : provisoire, relu depuis state
+        IdempotencyStore<Integer> store = new IdempotencyStore<>("test", Duration.ofMinutes(1), 100,
+            Duration.ofSeconds(1), value -> value != 0, value -> {
+                refreshes.incrementAndGet();
+                return state.get();
+            }, registry);
+
+        assertThat(store.execute("key", FINGERPRINT, () -> 0)).isZero();
+        assertThat(store.execute("key", FINGERPRINT, () -> 9)).isZero();
+        state.set(7);
+        assertThat(store.execute("key", FINGERPRINT, () -> 9)).isEqualTo(7);
+        assertThat(store.execute("key", FINGERPRINT, () -> 9)).isEqualTo(7);
+        assertThat(refreshes).hasValue(2);
+    }
+
+    @Test
+    void failureFoundOnRefreshIsRemembered() {
+        AtomicInteger refreshes = new AtomicInteger();
+        IdempotencyStore<Integer> store = new IdempotencyStore<>("test", Duration.ofMinutes(1), 100,
+            Duration.ofSeconds(1), value -> value != 0, value -> {
+                refreshes.incrementAndGet();
+                throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, "declined");
+            }, registry);
+
+        store.execute("key", FINGERPRINT, () -> 0);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> store.execute("key", FINGERPRINT, () -> 9))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYMENT_REQUIRED));
+        }
+        assertThat(refreshes).hasValue(1);
+    }
+
+    private IdempotencyStore<Integer> store(Duration waitTimeout) {
+        return new IdempotencyStore<>("test", Duration.ofMinutes(1), 100, waitTimeout, registry);
+    }
+
+    private double count(String outcome) {
+        return registry.get("idempotency.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.carrental.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Entry point of the load-test harness.
+ *
+ * <p>Runs one constant-rate step per value of {@code --rates} against the chosen scenario, writes an
+ * HdrHistogram percentile distribution per step and reports the highest rate that was sustained.</p>
+ *
+ * <p>Options: {@code --scenario=rentals|occupancy}, {@code --base-url} (comma-separated for several instances),
+ * {@code --rates=50,100,200}, {@code --warmup=10s}, {@code --duration=30s}, {@code --slo-p99-ms=500}, {@code --timeout=30s},
+ * {@code --max-in-flight=5000}, {@code --output-dir=target/load-test}, {@code --all-steps},
+ * {@code --with-stubs} (plus every {@link StubServers} option), {@code --first-booking-offset-days}.</p>
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        Scenario scenario = Scenario.valueOf(options.getString("scenario", "rentals").toUpperCase(Locale.ROOT));
+        // Comma-separated to spread the load over several instances of the service
+        List<String> baseUrls = List.of(options.getString("base-url", scenario.getDefaultBaseUrl()).split(","));
+        List<Integer> rates = options.getIntList("rates", "25,50,100,200,400");
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(30));
+        double sloP99Millis = options.getInt("slo-p99-ms", 500);
+        Path outputDir = Path.of(options.getString("output-dir", "target/load-test"));
+
+        // Bookings must not collide with those of a previous run against the same rental-service, so by
+        // default each minute gets its own 200-day slice of the calendar (staying below year 9999).
+        int offsetDays = options.getInt("first-booking-offset-days",
+            (int) (System.currentTimeMillis() / 60_000 % 10_000) * 200);
+        Scenario.ScenarioSettings settings = new Scenario.ScenarioSettings(
+            options.getInt("fleet-size", 1000),
+            LocalDate.now().plusDays(1 + offsetDays),
+            options.getDuration("timeout", Duration.ofSeconds(30)));
+
+        StubServers stubs = null;
+        if (options.getBoolean("with-stubs")) {
+            stubs = new StubServers(options);
+            stubs.start();
+        }
+
+        try {
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(
+                scenario, baseUrls, settings, options.getInt("max-in-flight", 5000));
+            System.out.printf("Scenario %s against %s, warmup %ds, duration %ds, p99 objective %.0f ms%n%n",
+                scenario, String.join(", ", baseUrls), warmup.toSeconds(), duration.toSeconds(), sloP99Millis);
+            System.out.println(StepResult.summaryHeader());
+
+            List<StepResult> results = new ArrayList<>();
+            for (int rate : rates) {
+                StepResult result = generator.run(rate, warmup, duration);
+                results.add(result);
+                result.writePercentileDistribution(
+                    outputDir.resolve(scenario.name().toLowerCase(Locale.ROOT) + "-" + rate + "rps.hgrm"));
+                System.out.println(result.summaryLine(sloP99Millis));
+                if (!result.isSustainable(sloP99Millis) && !options.getBoolean("all-steps")) {
+                    break;
+                }
+            }
+
+            int maxSustainable = results.stream()
+                .filter(r -> r.isSustainable(sloP99Millis))
+                .mapToInt(StepResult::getTargetRate)
+                .max()
+                .orElse(0);
+            System.out.printf("%nMax sustainable throughput: %d req/s (p99 <= %.0f ms, errors <= 1%%)%n",
+                maxSustainable, sloP99Millis);
+            System.out.println("Percentile distributions written to " + outputDir.toAbsolutePath());
+        } finally {
+            if (stubs != null) {
+                stubs.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.carrental.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model (constant arrival rate) load generator.
+ *
+ * <p>Requests are issued on a fixed schedule regardless of how many are still outstanding, and latency is
+ * measured from each request's <em>intended</em> send time. A slow server therefore shows up as growing
+ * latency instead of silently lowering the offered load (no coordinated omission).</p>
+ */
+public class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient httpClient;
+    private final Scenario scenario;
+    private final List<String> baseUrls;
+    private final Scenario.ScenarioSettings settings;
+    private final int maxInFlight;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * With several base URLs (instances of the same service) requests are spread over them round-robin.
+     */
+    public OpenModelLoadGenerator(Scenario scenario, List<String> baseUrls, Scenario.ScenarioSettings settings, int maxInFlight) {
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.scenario = scenario;
+        this.baseUrls = List.copyOf(baseUrls);
+        this.settings = settings;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Offer {@code ratePerSecond} requests per second for {@code warmup + duration}.
+     * Only requests scheduled after the warmup are recorded.
+     */
+    public StepResult run(int ratePerSecond, Duration warmup, Duration duration) {
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                // Client-side saturation: count it rather than blocking the schedule
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            long next = sequence.getAndIncrement();
+            HttpRequest request = scenario.request(baseUrls.get((int) (next % baseUrls.size())), next, settings);
+            long intendedStart = intended;
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (measured) {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                        recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                        if (error == null && response.statusCode() < 400) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    inFlight.decrementAndGet();
+                });
+        }
+
+        awaitDrain(inFlight);
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new StepResult(ratePerSecond, duration, histogram, succeeded.get(), failed.get(), dropped.get());
+    }
+
+    private void awaitDrain(AtomicInteger inFlight) {
+        long deadline = System.nanoTime() + settings.requestTimeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+}
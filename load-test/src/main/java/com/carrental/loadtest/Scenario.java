@@ -0,0 +1,64 @@
+package com.carrental.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Request shapes driven by the harness.
+ */
+public enum Scenario {
+
+    /**
+     * {@code POST /api/rentals}. Every request books a distinct (car, dates) pair so that the
+     * overlap check never rejects it: cars are cycled and each full cycle moves two days further.
+     * Each request carries its own {@code Idempotency-Key}, unique across runs.
+     */
+    RENTALS("http://localhost:8082") {
+        @Override
+        HttpRequest request(String baseUrl, long sequence, ScenarioSettings settings) {
+            long carId = sequence % settings.fleetSize() + 1;
+            LocalDate start = settings.firstBookingDate().plusDays(2 * (sequence / settings.fleetSize()));
+            String body = String.format("{\"carId\":%d,\"clientId\":\"load-%d\",\"startDate\":\"%s\",\"endDate\":\"%s\"}",
+                carId, sequence, start, start.plusDays(1));
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/rentals"))
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", "load-" + settings.firstBookingDate() + "-" + sequence)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        }
+    },
+
+    /**
+     * {@code GET /api/analytics/occupancy} over the default 30-day window.
+     */
+    OCCUPANCY("http://localhost:8084") {
+        @Override
+        HttpRequest request(String baseUrl, long sequence, ScenarioSettings settings) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/analytics/occupancy"))
+                .timeout(settings.requestTimeout())
+                .GET()
+                .build();
+        }
+    };
+
+    private final String defaultBaseUrl;
+
+    Scenario(String defaultBaseUrl) {
+        this.defaultBaseUrl = defaultBaseUrl;
+    }
+
+    public String getDefaultBaseUrl() {
+        return defaultBaseUrl;
+    }
+
+    abstract HttpRequest request(String baseUrl, long sequence, ScenarioSettings settings);
+
+    /**
+     * Parameters shared by the request generators.
+     */
+    record ScenarioSettings(int fleetSize, LocalDate firstBookingDate, Duration requestTimeout) {
+    }
+}
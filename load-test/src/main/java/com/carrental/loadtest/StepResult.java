@@ -0,0 +1,82 @@
+package com.carrental.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of one constant-rate step: latency histogram (microseconds) and request counters.
+ */
+public class StepResult {
+
+    private final int targetRate;
+    private final Duration duration;
+    private final Histogram histogram;
+    private final long succeeded;
+    private final long failed;
+    private final long dropped;
+
+    public StepResult(int targetRate, Duration duration, Histogram histogram, long succeeded, long failed, long dropped) {
+        this.targetRate = targetRate;
+        this.duration = duration;
+        this.histogram = histogram;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.dropped = dropped;
+    }
+
+    public int getTargetRate() {
+        return targetRate;
+    }
+
+    public double getAchievedThroughput() {
+        return succeeded / (duration.toMillis() / 1000.0);
+    }
+
+    public double getErrorRatio() {
+        long total = succeeded + failed + dropped;
+        return total == 0 ? 0.0 : (double) (failed + dropped) / total;
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * A step is sustainable when the service kept up with the offered rate, errors stayed
+     * marginal and the p99 met the latency objective.
+     */
+    public boolean isSustainable(double sloP99Millis) {
+        return getAchievedThroughput() >= targetRate * 0.95
+            && getErrorRatio() <= 0.01
+            && getPercentileMillis(99.0) <= sloP99Millis;
+    }
+
+    public String summaryLine(double sloP99Millis) {
+        return String.format("%8d %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f  %s",
+            targetRate, getAchievedThroughput(), failed, dropped,
+            getPercentileMillis(50.0), getPercentileMillis(90.0), getPercentileMillis(99.0),
+            getPercentileMillis(99.9), histogram.getMaxValue() / 1000.0,
+            isSustainable(sloP99Millis) ? "OK" : "SATURATED");
+    }
+
+    public static String summaryHeader() {
+        return String.format("%8s %10s %8s %8s %10s %10s %10s %10s %10s  %s",
+            "rate/s", "ok/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "verdict");
+    }
+
+    /**
+     * Write the full HdrHistogram percentile distribution (values in milliseconds), readable by the
+     * HdrHistogram plotter.
+     */
+    public void writePercentileDistribution(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
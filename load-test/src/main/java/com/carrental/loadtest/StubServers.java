@@ -0,0 +1,265 @@
+package com.carrental.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-ins for car-service, rental-service and payment-service.
+ * Each stub answers the endpoints used by the service under test after a configurable latency,
+ * so booking and analytics throughput can be measured without the real downstream services.
+ *
+ * <p>Options: {@code --car-port}, {@code --rental-port}, {@code --payment-port},
+ * {@code --stub-latency-ms} (default for all stubs), {@code --car-latency-ms}, {@code --rental-latency-ms},
+ * {@code --payment-latency-ms}, {@code --stub-jitter-ms}, {@code --payment-failure-percent},
+ * {@code --fleet-size}, {@code --rentals-per-car}.</p>
+ */
+public class StubServers {
+
+    private static final String JSON = "application/json";
+    private static final byte[] HEALTH_UP = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY, Nagle plus delayed ACKs
+        // add ~40 ms to every stubbed call and swamp the configured latency.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "stub-handler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong paymentSequence = new AtomicLong();
+
+    private final int carPort;
+    private final int rentalPort;
+    private final int paymentPort;
+    private final int carLatencyMs;
+    private final int rentalLatencyMs;
+    private final int paymentLatencyMs;
+    private final int fleetSize;
+    private final int jitterMs;
+    private final int paymentFailurePercent;
+    private final byte[] allCars;
+    private final byte[] allRentals;
+    private final byte[][] rentalsByCar;
+    private final List<String> rentalsById;
+
+    public StubServers(LoadTestOptions options) {
+        this.fleetSize = options.getInt("fleet-size", 1000);
+        this.jitterMs = options.getInt("stub-jitter-ms", 0);
+        this.paymentFailurePercent = options.getInt("payment-failure-percent", 0);
+
+        int rentalsPerCar = options.getInt("rentals-per-car", 10);
+        this.rentalsByCar = new byte[fleetSize + 1][];
+        this.rentalsById = new ArrayList<>(fleetSize * rentalsPerCar);
+        StringBuilder cars = new StringBuilder("[");
+        StringBuilder rentals = new StringBuilder("[");
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        long rentalId = 1;
+        for (int carId = 1; carId <= fleetSize; carId++) {
+            if (carId > 1) {
+                cars.append(',');
+            }
+            cars.append(carJson(carId));
+            StringBuilder carRentals = new StringBuilder("[");
+            for (int r = 0; r < rentalsPerCar; r++) {
+                LocalDate start = today.minusDays(60 - random.nextInt(90));
+                String rental = String.format(Locale.ROOT,
+                    "{\"id\":%d,\"carId\":%d,\"clientId\":\"client-%d\",\"startDate\":\"%s\",\"endDate\":\"%s\","
+                        + "\"status\":\"%s\",\"paymentId\":\"ch_stub%d\",\"totalAmount\":%.2f}",
+                    rentalId, carId, random.nextInt(fleetSize * 4 + 1), start, start.plusDays(1 + random.nextInt(10)),
+                    random.nextInt(4) == 0 ? "CANCELLED" : "COMPLETED", rentalId, 50.0 * (1 + random.nextInt(10)));
+                rentalId++;
+                rentalsById.add(rental);
+                if (r > 0) {
+                    carRentals.append(',');
+                }
+                carRentals.append(rental);
+                if (rentals.length() > 1) {
+                    rentals.append(',');
+                }
+                rentals.append(rental);
+            }
+            rentalsByCar[carId] = carRentals.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+        this.allCars = cars.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        this.allRentals = rentals.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        int defaultLatency = options.getInt("stub-latency-ms", 0);
+        this.carLatencyMs = options.getInt("car-latency-ms", defaultLatency);
+        this.rentalLatencyMs = options.getInt("rental-latency-ms", defaultLatency);
+        this.paymentLatencyMs = options.getInt("payment-latency-ms", defaultLatency);
+        this.carPort = options.getInt("car-port", 9081);
+        this.rentalPort = options.getInt("rental-port", 9082);
+        this.paymentPort = options.getInt("payment-port", 9083);
+    }
+
+    public void start() throws IOException {
+        HttpServer car = create(carPort);
+        car.createContext("/api/cars", exchange -> {
+            pause(carLatencyMs);
+            String method = exchange.getRequestMethod();
+            Long id = trailingId(exchange, "/api/cars");
+            if (id == null) {
+                respond(exchange, 200, allCars);
+            } else if (id < 1 || id > fleetSize) {
+                respond(exchange, 404, new byte[0]);
+            } else if ("GET".equals(method)) {
+                respond(exchange, 200, carJson(id).getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, 200, readBody(exchange));
+            }
+        });
+
+        HttpServer rental = create(rentalPort);
+        rental.createContext("/api/rentals", exchange -> {
+            pause(rentalLatencyMs);
+            Long carId = trailingId(exchange, "/api/rentals/car");
+            if (carId == null) {
+                respond(exchange, 200, allRentals);
+            } else if (carId < 1 || carId > fleetSize) {
+                respond(exchange, 200, "[]".getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, 200, rentalsByCar[carId.intValue()]);
+            }
+        });
+
+        // Rentals by ascending ID: GET /api/rentals/feed?afterId=&limit=
+        rental.createContext("/api/rentals/feed", exchange -> {
+            pause(rentalLatencyMs);
+            String query = exchange.getRequestURI().getQuery();
+            int from = (int) Math.min(queryParam(query, "afterId", 0), rentalsById.size());
+            int to = (int) Math.min(from + queryParam(query, "limit", 1000), rentalsById.size());
+            respond(exchange, 200, ("[" + String.join(",", rentalsById.subList(from, to)) + "]")
+                .getBytes(StandardCharsets.UTF_8));
+        });
+
+        HttpServer payment = create(paymentPort);
+        payment.createContext("/api/payments/process", exchange -> {
+            readBody(exchange);
+            pause(paymentLatencyMs);
+            long sequence = paymentSequence.incrementAndGet();
+            if (ThreadLocalRandom.current().nextInt(100) < paymentFailurePercent) {
+                respond(exchange, 402, "{\"paymentId\":null,\"status\":\"FAILED\",\"message\":\"Stub payment failure\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, 200, ("{\"paymentId\":\"ch_stub" + sequence + "\",\"status\":\"SUCCESS\","
+                    + "\"message\":\"Payment processed by stub\"}").getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        // Refunds of the booking saga's compensation: POST /api/payments/{paymentId}/refund
+        payment.createContext("/api/payments/", exchange -> {
+            readBody(exchange);
+            pause(paymentLatencyMs);
+            String paymentId = exchange.getRequestURI().getPath().substring("/api/payments/".length()).replace("/refund", "");
+            respond(exchange, 200, ("{\"paymentId\":\"" + paymentId + "\",\"status\":\"REFUNDED\","
+                + "\"message\":\"Payment refunded by stub\"}").getBytes(StandardCharsets.UTF_8));
+        });
+
+        servers.add(car);
+        servers.add(rental);
+        servers.add(payment);
+        servers.forEach(HttpServer::start);
+        System.out.printf("Stubs started: car-service :%d (%d ms), rental-service :%d (%d ms), payment-service :%d (%d ms), jitter %d ms%n",
+            carPort, carLatencyMs, rentalPort, rentalLatencyMs, paymentPort, paymentLatencyMs, jitterMs);
+    }
+
+    public void stop() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+    private HttpServer create(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(executor);
+        // Answers the load balancer's health checks (/actuator/health/readiness)
+        server.createContext("/actuator/health", exchange -> respond(exchange, 200, HEALTH_UP));
+        return server;
+    }
+
+    private static String carJson(long id) {
+        return String.format("{\"id\":%d,\"brand\":\"Brand%d\",\"model\":\"Model%d\",\"year\":2023,"
+            + "\"status\":\"AVAILABLE\",\"pricePerDay\":50.0}", id, id % 10, id % 17);
+    }
+
+    private static long queryParam(String query, String name, long defaultValue) {
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith(name + "=")) {
+                    return Long.parseLong(param.substring(name.length() + 1));
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private void pause(int latencyMs) {
+        int delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextInt(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Long trailingId(HttpExchange exchange, String prefix) {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.startsWith(prefix + "/")) {
+            return null;
+        }
+        String tail = path.substring(prefix.length() + 1);
+        int slash = tail.indexOf('/');
+        try {
+            return Long.parseLong(slash < 0 ? tail : tail.substring(0, slash));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    /**
+     * Run the stubs alone, e.g. to point a manually started service at them.
+     */
+    public static void main(String[] args) throws IOException {
+        StubServers stubs = new StubServers(new LoadTestOptions(args));
+        stubs.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stubs::stop));
+    }
+}
@@ -0,0 +1,29 @@
+package com.carrental.paymentservice.config;
+
+import com.carrental.common.idempotency.IdempotencyStore;
+import com.carrental.paymentservice.dto.PaymentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-memory idempotency layer of {@code POST /api/payments/process}.
+ * Replays within one instance are answered from memory, with the same payment id or the same decline; the
+ * {@code payment_keys} table ({@code IdempotentPaymentService}) still covers replays that come after an eviction, and
+ * with the {@code durable} or {@code cluster} profile replays after a restart or on another instance.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore<PaymentResponse> paymentIdempotencyStore(
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:1h}") Duration ttl,
+            @Value("${idempotency.max-entries:10000}") long maxEntries,
+            @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        return new IdempotencyStore<>("payments", ttl, maxEntries, waitTimeout, meterRegistry);
+    }
+}
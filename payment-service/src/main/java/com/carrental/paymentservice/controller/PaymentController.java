@@ -1,14 +1,20 @@
 package com.carrental.paymentservice.controller;
 
+import com.carrental.common.idempotency.IdempotencyStore;
 import com.carrental.paymentservice.dto.PaymentRequest;
 import com.carrental.paymentservice.dto.PaymentResponse;
+import com.carrental.paymentservice.service.IdempotentPaymentService;
 import com.carrental.paymentservice.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 /**
  * Contrôleur REST pour les opérations de paiement.
@@ -20,16 +26,37 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotentPaymentService idempotentPaymentService;
+    private final IdempotencyStore<PaymentResponse> paymentIdempotencyStore;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             IdempotentPaymentService idempotentPaymentService,
+                             IdempotencyStore<PaymentResponse> paymentIdempotencyStore) {
         this.paymentService = paymentService;
+        this.idempotentPaymentService = idempotentPaymentService;
+        this.paymentIdempotencyStore = paymentIdempotencyStore;
     }
 
     @PostMapping("/process")
     @Operation(summary = "Traiter le paiement", 
                description = "Traite un paiement en utilisant Stripe ou le sandbox PayPal (implémentation fictive)")
-    public ResponseEntity<PaymentResponse> processPayment(@Valid @RequestBody PaymentRequest request) {
-        PaymentResponse response = paymentService.processPayment(request);
+    public ResponseEntity<PaymentResponse> processPayment(
+            @Valid @RequestBody PaymentRequest request,
+            @Parameter(description = "Clé fournie par le client : un paiement rejoué avec la même clé renvoie le résultat du premier, sans nouveau débit")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        PaymentResponse response;
+        if (idempotencyKey == null) {
+            response = paymentService.processPayment(request);
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > 200) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to 200 characters");
+            }
+            // Un paiement rejoué sur cette instance est servi depuis la mémoire, un doublon concurrent attend la
+            // première exécution ; la clé enregistrée en base couvre les autres instances et les redémarrages
+            response = paymentIdempotencyStore.execute(idempotencyKey,
+                List.of(request.getPaymentMethod(), request.getAmount(), request.getClientId(), request.getDescription()),
+                () -> idempotentPaymentService.processPayment(request, idempotencyKey));
+        }
         
         if ("SUCCESS".equals(response.getStatus())) {
             return ResponseEntity.ok(response);
@@ -38,6 +65,13 @@ public class PaymentController {
         }
     }
 
+    @PostMapping("/{paymentId}/refund")
+    @Operation(summary = "Rembourser un paiement",
+               description = "Rembourse un paiement accepté, par exemple quand la réservation correspondante est annulée (implémentation fictive)")
+    public ResponseEntity<PaymentResponse> refundPayment(@PathVariable String paymentId) {
+        return ResponseEntity.ok(paymentService.refundPayment(paymentId));
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Vérification de santé", description = "Vérifie si le service de paiement est en cours d'exécution")
     public ResponseEntity<String> health() {
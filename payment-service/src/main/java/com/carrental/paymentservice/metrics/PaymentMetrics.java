@@ -0,0 +1,67 @@
+package com.carrental.paymentservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs des paiements traités, par méthode et par résultat.
+ * Les quatre combinaisons sont enregistrées au démarrage pour garder le chemin de paiement sans allocation.
+ */
+@Component
+public class PaymentMetrics {
+
+    private final Counter stripeSucceeded;
+    private final Counter stripeFailed;
+    private final Counter paypalSucceeded;
+    private final Counter paypalFailed;
+    private final Counter stripeRefunded;
+    private final Counter paypalRefunded;
+
+    public PaymentMetrics(MeterRegistry registry) {
+        this.stripeSucceeded = counter(registry, "stripe", "success");
+        this.stripeFailed = counter(registry, "stripe", "failed");
+        this.paypalSucceeded = counter(registry, "paypal", "success");
+        this.paypalFailed = counter(registry, "paypal", "failed");
+        this.stripeRefunded = refundCounter(registry, "stripe");
+        this.paypalRefunded = refundCounter(registry, "paypal");
+    }
+
+    /**
+     * Enregistrer le résultat d'un paiement.
+     *
+     * @param paymentMethod "stripe" ou "paypal" (déjà validé et en minuscules)
+     * @param successful résultat du paiement
+     */
+    public void paymentProcessed(String paymentMethod, boolean successful) {
+        if (paymentMethod.equals("stripe")) {
+            (successful ? stripeSucceeded : stripeFailed).increment();
+        } else {
+            (successful ? paypalSucceeded : paypalFailed).increment();
+        }
+    }
+
+    /**
+     * Enregistrer un remboursement.
+     *
+     * @param paymentMethod "stripe" ou "paypal"
+     */
+    public void paymentRefunded(String paymentMethod) {
+        (paymentMethod.equals("stripe") ? stripeRefunded : paypalRefunded).increment();
+    }
+
+    private static Counter refundCounter(MeterRegistry registry, String method) {
+        return Counter.builder("payments.refunded")
+            .description("Payments refunded by payment-service")
+            .tag("method", method)
+            .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String method, String outcome) {
+        return Counter.builder("payments.processed")
+            .description("Payments processed by payment-service")
+            .tag("method", method)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
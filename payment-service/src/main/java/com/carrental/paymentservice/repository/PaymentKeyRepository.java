@@ -0,0 +1,97 @@
+package com.carrental.paymentservice.repository;
+
+import com.carrental.paymentservice.dto.PaymentResponse;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Clés d'idempotence des paiements (table {@code payment_keys}). En mémoire par défaut ; conservées après un
+ * redémarrage avec le profil {@code durable}, et partagées par les instances avec le profil {@code cluster}.
+ *
+ * <p>Une clé est revendiquée par l'insertion de sa ligne avant le débit ; la clé primaire garantit qu'une seule
+ * requête la revendique. La réponse du débit est ensuite enregistrée sur la même ligne.</p>
+ */
+@Repository
+public class PaymentKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Revendiquer une clé.
+     *
+     * @return {@code false} si la clé est déjà enregistrée
+     */
+    public boolean claim(String idempotencyKey, String requestHash) {
+        try {
+            jdbcTemplate.update("INSERT INTO payment_keys (idempotency_key, request_hash, created_at) VALUES (?, ?, ?)",
+                idempotencyKey, requestHash, Timestamp.from(Instant.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Enregistrer la réponse du débit d'une clé revendiquée.
+     */
+    public void complete(String idempotencyKey, PaymentResponse response) {
+        jdbcTemplate.update("UPDATE payment_keys SET payment_id = ?, status = ?, message = ?, amount = ?, "
+                + "payment_method = ?, completed_at = ? WHERE idempotency_key = ?",
+            response.getPaymentId(), response.getStatus(), truncate(response.getMessage()), response.getAmount(),
+            response.getPaymentMethod(), Timestamp.from(Instant.now()), idempotencyKey);
+    }
+
+    /**
+     * Libérer une clé revendiquée dont la requête n'a rien débité.
+     */
+    public void release(String idempotencyKey) {
+        jdbcTemplate.update("DELETE FROM payment_keys WHERE idempotency_key = ? AND completed_at IS NULL",
+            idempotencyKey);
+    }
+
+    /**
+     * Trouver une clé enregistrée.
+     */
+    public Optional<PaymentKey> find(String idempotencyKey) {
+        List<PaymentKey> keys = jdbcTemplate.query("SELECT request_hash, payment_id, status, message, amount, "
+                + "payment_method, completed_at FROM payment_keys WHERE idempotency_key = ?",
+            (rs, rowNum) -> new PaymentKey(rs.getString("request_hash"), rs.getTimestamp("completed_at") == null
+                ? null
+                : new PaymentResponse(rs.getString("payment_id"), rs.getString("status"), rs.getString("message"),
+                    rs.getObject("amount", Double.class), rs.getString("payment_method"))),
+            idempotencyKey);
+        return keys.stream().findFirst();
+    }
+
+    /**
+     * Supprimer les clés enregistrées avant {@code before}.
+     *
+     * @return nombre de clés supprimées
+     */
+    public int deleteCreatedBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM payment_keys WHERE created_at < ?", Timestamp.from(before));
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    /**
+     * Clé enregistrée.
+     *
+     * @param requestHash empreinte de la requête qui a revendiqué la clé
+     * @param response    réponse du débit, {@code null} tant qu'il n'est pas enregistré
+     */
+    public record PaymentKey(String requestHash, PaymentResponse response) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.carrental.paymentservice.service;
+
+import com.carrental.paymentservice.dto.PaymentRequest;
+import com.carrental.paymentservice.dto.PaymentResponse;
+import com.carrental.paymentservice.repository.PaymentKeyRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Paiements avec clé d'idempotence enregistrée en base : une clé ne débite qu'une fois, quelle que soit l'instance de
+ * payment-service qui reçoit la requête (profil {@code cluster}), et même après un redémarrage (profils
+ * {@code durable} et {@code cluster}).
+ *
+ * <p>La clé est revendiquée en base ({@link PaymentKeyRepository}) avant le débit, puis la réponse du débit y est
+ * enregistrée. Une clé répétée renvoie la réponse enregistrée (même ID de paiement, ou même refus) ; une clé répétée
+ * avec une autre requête est refusée (422). Une clé revendiquée sans réponse enregistrée est refusée (409) et n'est
+ * jamais reprise : le débit est peut-être en cours sur une autre instance, ou a eu lieu avant un arrêt. L'appelant ne
+ * retente pas indéfiniment (la saga de réservation finit par compenser et journalise la clé à vérifier).</p>
+ */
+@Service
+public class IdempotentPaymentService {
+
+    private final PaymentService paymentService;
+    private final PaymentKeyRepository paymentKeys;
+
+    public IdempotentPaymentService(PaymentService paymentService, PaymentKeyRepository paymentKeys) {
+        this.paymentService = paymentService;
+        this.paymentKeys = paymentKeys;
+    }
+
+    /**
+     * Traiter une demande de paiement au plus une fois par clé.
+     *
+     * @return la réponse du premier paiement fait avec {@code idempotencyKey}
+     */
+    public PaymentResponse processPayment(PaymentRequest request, String idempotencyKey) {
+        String requestHash = requestHash(request);
+        if (!paymentKeys.claim(idempotencyKey, requestHash)) {
+            return replay(idempotencyKey, requestHash);
+        }
+        PaymentResponse response;
+        try {
+            response = paymentService.processPayment(request);
+        } catch (RuntimeException e) {
+            // Requête refusée avant le débit : rien n'a été débité
+            paymentKeys.release(idempotencyKey);
+            throw e;
+        }
+        paymentKeys.complete(idempotencyKey, response);
+        return response;
+    }
+
+    private PaymentResponse replay(String idempotencyKey, String requestHash) {
+        PaymentKeyRepository.PaymentKey key = paymentKeys.find(idempotencyKey)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                "A payment with the same idempotency key was just released, retry"));
+        if (!key.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency key was already used for a different request");
+        }
+        if (key.response() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A payment with the same idempotency key is still being processed or its outcome is unknown");
+        }
+        return key.response();
+    }
+
+    /**
+     * Empreinte SHA-256 des champs de la requête.
+     */
+    static String requestHash(PaymentRequest request) {
+        String fields = String.join("\n", request.getPaymentMethod(), String.valueOf(request.getAmount()),
+            request.getClientId(), request.getDescription());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
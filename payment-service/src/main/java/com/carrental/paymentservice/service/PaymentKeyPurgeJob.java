@@ -0,0 +1,51 @@
+package com.carrental.paymentservice.service;
+
+import com.carrental.paymentservice.repository.PaymentKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Purge des clés d'idempotence des paiements : toutes les {@code idempotency.purge-interval}, les clés enregistrées
+ * depuis plus de {@code idempotency.retention} sont supprimées. La suppression est idempotente : le job peut tourner
+ * sur plusieurs instances en même temps.
+ */
+@Component
+public class PaymentKeyPurgeJob implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentKeyPurgeJob.class);
+
+    private final PaymentKeyRepository paymentKeys;
+    private final Duration retention;
+    private final Duration interval;
+
+    public PaymentKeyPurgeJob(PaymentKeyRepository paymentKeys,
+                              @Value("${idempotency.retention:7d}") Duration retention,
+                              @Value("${idempotency.purge-interval:1h}") Duration interval) {
+        this.paymentKeys = paymentKeys;
+        this.retention = retention;
+        this.interval = interval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(this::purgeExpiredKeys, interval, interval));
+    }
+
+    /**
+     * Supprimer les clés expirées.
+     */
+    void purgeExpiredKeys() {
+        int deleted = paymentKeys.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Payment keys: {} expired keys deleted", deleted);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.carrental.paymentservice.service;
 
 import com.carrental.paymentservice.dto.PaymentRequest;
 import com.carrental.paymentservice.dto.PaymentResponse;
+import com.carrental.paymentservice.metrics.PaymentMetrics;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -18,6 +19,11 @@ import java.util.Random;
 public class PaymentService {
 
     private final Random random = new Random();
+    private final PaymentMetrics paymentMetrics;
+
+    public PaymentService(PaymentMetrics paymentMetrics) {
+        this.paymentMetrics = paymentMetrics;
+    }
 
     /**
      * Traiter une demande de paiement.
@@ -43,6 +49,7 @@ public class PaymentService {
 
         // Simuler des échecs de paiement aléatoires (taux d'échec de 10% pour la démonstration)
         boolean paymentSuccessful = random.nextDouble() > 0.1;
+        paymentMetrics.paymentProcessed(paymentMethod, paymentSuccessful);
 
         if (!paymentSuccessful) {
             return new PaymentResponse(
@@ -66,10 +73,40 @@ public class PaymentService {
         );
     }
 
+    /**
+     * Rembourser un paiement (compensation d'une réservation annulée après paiement).
+     * Implémentation fictive : tout ID au format Stripe ou PayPal est remboursé ; rembourser deux fois le même
+     * paiement renvoie le même résultat.
+     *
+     * @param paymentId ID renvoyé par {@link #processPayment}
+     * @return PaymentResponse au statut REFUNDED
+     */
+    public PaymentResponse refundPayment(String paymentId) {
+        String paymentMethod;
+        if (paymentId.startsWith("ch_")) {
+            paymentMethod = "stripe";
+        } else if (paymentId.startsWith("PP-")) {
+            paymentMethod = "paypal";
+        } else {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found with ID: " + paymentId);
+        }
+        paymentMetrics.paymentRefunded(paymentMethod);
+
+        return new PaymentResponse(
+            paymentId,
+            "REFUNDED",
+            String.format("Payment refunded via %s", paymentMethod.toUpperCase()),
+            null,
+            paymentMethod
+        );
+    }
+
     /**
      * Générer un ID de paiement fictif basé sur la méthode de paiement.
+     * Visibilité package et non privée : PaymentIdBenchmark (module benchmarks) mesure cette génération seule ; par
+     * {@link #processPayment}, elle serait noyée dans le délai simulé de 500 ms.
      */
-    private String generatePaymentId(String paymentMethod) {
+    String generatePaymentId(String paymentMethod) {
         String prefix = paymentMethod.equals("stripe") ? "ch_" : "PP-";
         return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 24);
     }
@@ -0,0 +1,16 @@
+-- Idempotency-Key of POST /api/payments/process: one row per key, shared by the instances and kept across restarts.
+-- The key is claimed (completed_at NULL) before the charge; the response of the charge is recorded on the same row.
+CREATE TABLE payment_keys (
+    idempotency_key VARCHAR(200) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    payment_id VARCHAR(64),
+    status VARCHAR(20),
+    message VARCHAR(500),
+    amount DOUBLE PRECISION,
+    payment_method VARCHAR(20),
+    created_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+-- Purge of expired keys
+CREATE INDEX idx_payment_keys_created ON payment_keys (created_at);
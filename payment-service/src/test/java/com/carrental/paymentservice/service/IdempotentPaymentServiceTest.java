@@ -0,0 +1,121 @@
+package com.carrental.paymentservice.service;
+
+import com.carrental.paymentservice.dto.PaymentRequest;
+import com.carrental.paymentservice.dto.PaymentResponse;
+import com.carrental.paymentservice.repository.PaymentKeyRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotentPaymentServiceTest {
+
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private PaymentKeyRepository paymentKeys;
+    private IdempotentPaymentService payments;
+
+    @BeforeEach
+    void setUp() {
+        // Une base par test, comme la base partagée par les instances
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        paymentKeys = new PaymentKeyRepository(new JdbcTemplate(dataSource));
+        payments = new IdempotentPaymentService(paymentService, paymentKeys);
+    }
+
+    @Test
+    void replayedKeyIsChargedOnce() {
+        when(paymentService.processPayment(any()))
+            .thenReturn(new PaymentResponse("ch_1", "SUCCESS", "ok", 150.0, "stripe"));
+
+        PaymentResponse first = payments.processPayment(request(150.0), "key");
+        // Autre instance, ou même instance après un redémarrage : seule la table est partagée
+        PaymentResponse replay = new IdempotentPaymentService(paymentService, paymentKeys)
+            .processPayment(request(150.0), "key");
+
+        assertThat(replay.getPaymentId()).isEqualTo(first.getPaymentId()).isEqualTo("ch_1");
+        assertThat(replay.getStatus()).isEqualTo("SUCCESS");
+        verify(paymentService, times(1)).processPayment(any());
+    }
+
+    @Test
+    void declinedPaymentIsReplayed() {
+        when(paymentService.processPayment(any()))
+            .thenReturn(new PaymentResponse(null, "FAILED", "declined", 150.0, "stripe"));
+
+        payments.processPayment(request(150.0), "key");
+        PaymentResponse replay = payments.processPayment(request(150.0), "key");
+
+        assertThat(replay.getStatus()).isEqualTo("FAILED");
+        assertThat(replay.getMessage()).isEqualTo("declined");
+        verify(paymentService, times(1)).processPayment(any());
+    }
+
+    @Test
+    void keyWithoutRecordedOutcomeIsNeverChargedAgain() {
+        // Instance arrêtée pendant le débit : la clé est revendiquée, sans réponse
+        paymentKeys.claim("key", IdempotentPaymentService.requestHash(request(150.0)));
+
+        assertThatThrownBy(() -> payments.processPayment(request(150.0), "key"))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(paymentService, never()).processPayment(any());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        when(paymentService.processPayment(any()))
+            .thenReturn(new PaymentResponse("ch_1", "SUCCESS", "ok", 150.0, "stripe"));
+        payments.processPayment(request(150.0), "key");
+
+        assertThatThrownBy(() -> payments.processPayment(request(200.0), "key"))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void rejectedRequestReleasesTheKey() {
+        when(paymentService.processPayment(any()))
+            .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported payment method"))
+            .thenReturn(new PaymentResponse("ch_1", "SUCCESS", "ok", 150.0, "stripe"));
+
+        assertThatThrownBy(() -> payments.processPayment(request(150.0), "key"))
+            .isInstanceOf(ResponseStatusException.class);
+        assertThat(paymentKeys.find("key")).isEmpty();
+        assertThat(payments.processPayment(request(150.0), "key").getPaymentId()).isEqualTo("ch_1");
+    }
+
+    @Test
+    void expiredKeysArePurged() {
+        paymentKeys.claim("key", IdempotentPaymentService.requestHash(request(150.0)));
+
+        assertThat(paymentKeys.deleteCreatedBefore(Instant.now().minusSeconds(60))).isZero();
+        assertThat(paymentKeys.deleteCreatedBefore(Instant.now().plusSeconds(60))).isEqualTo(1);
+        assertThat(paymentKeys.find("key")).isEmpty();
+    }
+
+    private static PaymentRequest request(double amount) {
+        PaymentRequest request = new PaymentRequest();
+        request.setPaymentMethod("stripe");
+        request.setAmount(amount);
+        request.setClientId("client-1");
+        request.setDescription("Rental for car 1");
+        return request;
+    }
+}
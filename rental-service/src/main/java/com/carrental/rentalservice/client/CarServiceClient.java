@@ -5,13 +5,11 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 
 /**
  * Client Feign pour communiquer avec car-service.
  */
-@FeignClient(name = "car-service", url = "${car.service.url:http://localhost:8081}")
+@FeignClient(name = "car-service")
 public interface CarServiceClient {
 
     /**
@@ -19,11 +17,4 @@ public interface CarServiceClient {
      */
     @GetMapping("/api/cars/{id}")
     ResponseEntity<Car> getCarById(@PathVariable Long id);
-
-    /**
-     * Mettre à jour le statut de la voiture dans car-service.
-     */
-    @PutMapping("/api/cars/{id}")
-    ResponseEntity<Car> updateCar(@PathVariable Long id, @RequestBody Car car);
 }
-
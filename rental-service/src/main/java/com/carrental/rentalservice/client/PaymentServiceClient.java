@@ -12,7 +12,15 @@ public interface PaymentServiceClient {
     
     /**
      * Traiter le paiement via payment-service.
+     *
+     * @param idempotencyKey envoyé dans l'en-tête {@code Idempotency-Key} s'il n'est pas nul : payment-service
+     *                       renvoie alors le résultat du premier paiement au lieu de débiter une seconde fois
      */
-    Mono<PaymentResponse> processPayment(PaymentRequest request);
+    Mono<PaymentResponse> processPayment(PaymentRequest request, String idempotencyKey);
+
+    /**
+     * Rembourser un paiement accepté (compensation de la saga de réservation).
+     */
+    Mono<PaymentResponse> refundPayment(String paymentId);
 }
 
@@ -2,7 +2,8 @@ package com.carrental.rentalservice.client;
 
 import com.carrental.rentalservice.dto.PaymentRequest;
 import com.carrental.rentalservice.dto.PaymentResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -10,27 +11,52 @@ import reactor.core.publisher.Mono;
 
 /**
  * Implémentation de PaymentServiceClient utilisant WebClient.
+ * Les appels sont répartis entre les instances de payment-service par le load balancer.
  */
 @Component
 public class PaymentServiceClientImpl implements PaymentServiceClient {
 
+    private static final String LOAD_BALANCED_URL = "http://payment-service";
+
     private final WebClient webClient;
 
-    public PaymentServiceClientImpl(
-            WebClient.Builder webClientBuilder,
-            @Value("${payment.service.url:http://localhost:8083}") String paymentServiceUrl) {
+    @Autowired
+    public PaymentServiceClientImpl(@LoadBalanced WebClient.Builder webClientBuilder) {
+        this(webClientBuilder, LOAD_BALANCED_URL);
+    }
+
+    /**
+     * Client vers une adresse fixe, sans load balancer.
+     */
+    public PaymentServiceClientImpl(WebClient.Builder webClientBuilder, String paymentServiceUrl) {
         this.webClient = webClientBuilder
                 .baseUrl(paymentServiceUrl)
                 .build();
     }
 
     @Override
-    public Mono<PaymentResponse> processPayment(PaymentRequest request) {
+    public Mono<PaymentResponse> processPayment(PaymentRequest request, String idempotencyKey) {
         return webClient.post()
                 .uri("/api/payments/process")
                 .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (idempotencyKey != null) {
+                        headers.set("Idempotency-Key", idempotencyKey);
+                    }
+                })
                 .bodyValue(request)
                 .retrieve()
+                // 402 = paiement refusé : la réponse (statut FAILED) est lue, ce n'est pas une erreur d'appel
+                .onStatus(status -> status.value() == 402, response -> Mono.empty())
+                .bodyToMono(PaymentResponse.class)
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Payment service error: " + ex.getMessage(), ex));
+    }
+
+    @Override
+    public Mono<PaymentResponse> refundPayment(String paymentId) {
+        return webClient.post()
+                .uri("/api/payments/{paymentId}/refund", paymentId)
+                .retrieve()
                 .bodyToMono(PaymentResponse.class)
                 .onErrorMap(Exception.class, ex -> new RuntimeException("Payment service error: " + ex.getMessage(), ex));
     }
@@ -0,0 +1,33 @@
+package com.carrental.rentalservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor of the remote booking saga steps (car lookup, payment, refund).
+ * The trace context and MDC of the request are propagated to the saga threads.
+ */
+@Configuration
+public class BookingSagaConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor bookingSagaExecutor(@Value("${booking.saga.threads:16}") int threads,
+                                                      @Value("${booking.saga.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-saga-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        // When the queue is full the request thread runs its saga itself instead of failing the booking
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
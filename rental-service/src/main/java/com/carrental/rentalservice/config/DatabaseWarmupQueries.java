@@ -0,0 +1,39 @@
+package com.carrental.rentalservice.config;
+
+import com.carrental.common.warmup.DatabaseWarmup;
+import com.carrental.rentalservice.model.BookingSaga;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import com.carrental.rentalservice.repository.RentalRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+/**
+ * Repository queries of rental-service run once by the database warm start ({@link DatabaseWarmup}).
+ */
+@Component
+public class DatabaseWarmupQueries implements DatabaseWarmup.Queries {
+
+    private final RentalRepository rentalRepository;
+    private final BookingSagaRepository bookingSagaRepository;
+
+    public DatabaseWarmupQueries(RentalRepository rentalRepository, BookingSagaRepository bookingSagaRepository) {
+        this.rentalRepository = rentalRepository;
+        this.bookingSagaRepository = bookingSagaRepository;
+    }
+
+    @Override
+    public String run() {
+        long rentals = rentalRepository.count();
+        LocalDate today = LocalDate.now();
+        rentalRepository.findActiveRentalsForCarInDateRange(0L, today, today);
+        rentalRepository.findByCarId(0L);
+        rentalRepository.findByClientId("");
+        bookingSagaRepository.findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            EnumSet.of(BookingSaga.State.RESERVED), Instant.EPOCH, PageRequest.of(0, 1));
+        return rentals + " rentals";
+    }
+}
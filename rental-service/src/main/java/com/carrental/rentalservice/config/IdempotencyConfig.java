@@ -0,0 +1,32 @@
+package com.carrental.rentalservice.config;
+
+import com.carrental.common.idempotency.IdempotencyStore;
+import com.carrental.rentalservice.model.Rental;
+import com.carrental.rentalservice.service.RentalService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-memory idempotency layer of {@code POST /api/rentals}.
+ * Replays within one instance are answered from memory; the unique {@code rentals.idempotency_key} column still
+ * covers replays that reach another instance or come after the key was evicted.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore<Rental> bookingIdempotencyStore(
+            MeterRegistry meterRegistry,
+            RentalService rentalService,
+            @Value("${idempotency.ttl:1h}") Duration ttl,
+            @Value("${idempotency.max-entries:10000}") long maxEntries,
+            @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        // A booking still PENDING is not final yet: a retry reads its current state, or the failure of its saga
+        return new IdempotencyStore<>("bookings", ttl, maxEntries, waitTimeout,
+            rental -> rental.getStatus() != Rental.RentalStatus.PENDING, rentalService::replay, meterRegistry);
+    }
+}
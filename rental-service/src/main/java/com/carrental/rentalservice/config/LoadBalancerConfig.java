@@ -0,0 +1,14 @@
+package com.carrental.rentalservice.config;
+
+import com.carrental.common.loadbalancer.LoadBalancedClientConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Client-side load balancing for the Feign client of car-service and the WebClient of payment-service.
+ * Each downstream service gets its own {@link LoadBalancedClientConfiguration} context.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancedClientConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -1,18 +1,41 @@
 package com.carrental.rentalservice.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Configuration for WebClient used for payment service communication.
+ * Applies the Boot customizers so that calls are timed as {@code http.client.requests}.
  */
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Plain builder, for absolute URLs.
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    @Primary
+    public WebClient.Builder webClientBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        return customizedBuilder(customizers);
+    }
+
+    /**
+     * Builder whose host names are service ids resolved by the load balancer, e.g. {@code http://payment-service}.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        return customizedBuilder(customizers);
     }
-}
 
+    private static WebClient.Builder customizedBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        WebClient.Builder builder = WebClient.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+}
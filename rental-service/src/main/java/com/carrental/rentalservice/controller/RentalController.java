@@ -1,14 +1,17 @@
 package com.carrental.rentalservice.controller;
 
+import com.carrental.common.idempotency.IdempotencyStore;
 import com.carrental.rentalservice.dto.RentalRequest;
 import com.carrental.rentalservice.model.Rental;
 import com.carrental.rentalservice.service.RentalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -21,17 +24,37 @@ import java.util.List;
 public class RentalController {
 
     private final RentalService rentalService;
+    private final IdempotencyStore<Rental> bookingIdempotencyStore;
 
-    public RentalController(RentalService rentalService) {
+    public RentalController(RentalService rentalService, IdempotencyStore<Rental> bookingIdempotencyStore) {
         this.rentalService = rentalService;
+        this.bookingIdempotencyStore = bookingIdempotencyStore;
     }
 
     @PostMapping
     @Operation(summary = "Créer une nouvelle location", 
-               description = "Crée une nouvelle location/réservation. Nécessite une vérification de la disponibilité de la voiture et un traitement du paiement.")
-    public ResponseEntity<Rental> createRental(@Valid @RequestBody RentalRequest request) {
-        Rental rental = rentalService.createRental(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(rental);
+               description = "Crée une nouvelle location/réservation. Nécessite une vérification de la disponibilité de la voiture et un traitement du paiement. "
+                   + "Renvoie 201 si la réservation est confirmée, 202 (location PENDING) si elle est encore en cours.")
+    public ResponseEntity<Rental> createRental(
+            @Valid @RequestBody RentalRequest request,
+            @Parameter(description = "Clé fournie par le client : une requête rejouée avec la même clé renvoie la location déjà créée")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to 100 characters");
+        }
+        Rental rental;
+        if (idempotencyKey == null) {
+            rental = rentalService.createRental(request, null);
+        } else {
+            // Une requête rejouée est servie depuis la mémoire, un doublon concurrent attend la première exécution
+            List<Object> fingerprint = List.of(request.getCarId(), request.getClientId(),
+                request.getStartDate(), request.getEndDate());
+            rental = bookingIdempotencyStore.execute(idempotencyKey, fingerprint,
+                () -> rentalService.createRental(request, idempotencyKey));
+        }
+        // PENDING : la saga de réservation n'est pas encore terminée, elle se poursuit en arrière-plan
+        HttpStatus status = rental.getStatus() == Rental.RentalStatus.PENDING ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(rental);
     }
 
     @GetMapping
@@ -61,5 +84,22 @@ public class RentalController {
         List<Rental> rentals = rentalService.getRentalsByCarId(carId);
         return ResponseEntity.ok(rentals);
     }
-}
 
+    @GetMapping("/cars")
+    @Operation(summary = "Obtenir les locations de plusieurs voitures",
+               description = "Récupère en une requête les locations de 1000 voitures au plus, p. ex. ?ids=1,2,3")
+    public ResponseEntity<List<Rental>> getRentalsByCarIds(@RequestParam("ids") List<Long> carIds) {
+        List<Rental> rentals = rentalService.getRentalsByCarIds(carIds);
+        return ResponseEntity.ok(rentals);
+    }
+
+    @GetMapping("/feed")
+    @Operation(summary = "Parcourir les locations par ID",
+               description = "Récupère les locations d'ID supérieur à afterId, par ID croissant (1000 au plus). "
+                   + "Pour suivre les nouvelles locations, reprendre avec le dernier ID reçu.")
+    public ResponseEntity<List<Rental>> getRentalsAfter(@RequestParam(defaultValue = "0") long afterId,
+                                                        @RequestParam(defaultValue = "1000") int limit) {
+        List<Rental> rentals = rentalService.getRentalsAfter(afterId, limit);
+        return ResponseEntity.ok(rentals);
+    }
+}
@@ -0,0 +1,76 @@
+package com.carrental.rentalservice.metrics;
+
+import com.carrental.rentalservice.model.BookingSaga;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compteurs métier du parcours de réservation.
+ * Les compteurs sont enregistrés une seule fois au démarrage : le chemin de réservation
+ * ne fait qu'un incrément, sans recherche de meter ni allocation de tags.
+ */
+@Component
+public class BookingMetrics {
+
+    private final Counter bookingsCreated;
+    private final Counter paymentFailures;
+    private final Counter doubleBookingRejections;
+    private final Counter unavailableCarRejections;
+    private final Map<BookingSaga.Failure, Counter> compensations = new EnumMap<>(BookingSaga.Failure.class);
+    private final Counter rentalsCompleted;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.bookingsCreated = Counter.builder("rental.bookings.created")
+            .description("Bookings confirmed")
+            .register(registry);
+        this.paymentFailures = Counter.builder("rental.payments.failed")
+            .description("Bookings aborted because payment was declined or payment-service failed")
+            .register(registry);
+        this.doubleBookingRejections = Counter.builder("rental.bookings.rejected")
+            .description("Bookings rejected before payment")
+            .tag("reason", "double_booking")
+            .register(registry);
+        this.unavailableCarRejections = Counter.builder("rental.bookings.rejected")
+            .description("Bookings rejected before payment")
+            .tag("reason", "car_unavailable")
+            .register(registry);
+        for (BookingSaga.Failure failure : BookingSaga.Failure.values()) {
+            compensations.put(failure, Counter.builder("rental.bookings.compensated")
+                .description("Booking sagas compensated (payment refunded if taken, rental cancelled)")
+                .tag("reason", failure.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+        this.rentalsCompleted = Counter.builder("rental.lifecycle.completed")
+            .description("Rentals moved to COMPLETED after their end date")
+            .register(registry);
+    }
+
+    public void bookingCreated() {
+        bookingsCreated.increment();
+    }
+
+    public void paymentFailed() {
+        paymentFailures.increment();
+    }
+
+    public void doubleBookingRejected() {
+        doubleBookingRejections.increment();
+    }
+
+    public void unavailableCarRejected() {
+        unavailableCarRejections.increment();
+    }
+
+    public void bookingCompensated(BookingSaga.Failure failure) {
+        compensations.get(failure).increment();
+    }
+
+    public void rentalsCompleted(int count) {
+        rentalsCompleted.increment(count);
+    }
+}
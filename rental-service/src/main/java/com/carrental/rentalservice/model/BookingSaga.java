@@ -0,0 +1,149 @@
+package com.carrental.rentalservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * État persistant de la saga d'une réservation.
+ * Chaque étape (réservation, paiement) est enregistrée dans une transaction
+ * courte ; une saga interrompue reprend à l'étape enregistrée. Le numéro de version empêche deux exécutions
+ * concurrentes (requête et reprise, ou deux instances) d'avancer la même saga.
+ */
+@Entity
+@Table(name = "booking_sagas")
+public class BookingSaga {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rental_id", nullable = false, unique = true)
+    private Long rentalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+
+    /**
+     * Clé d'idempotence envoyée à payment-service : un paiement rejoué n'est pas débité deux fois.
+     */
+    @Column(name = "payment_key", nullable = false, length = 64)
+    private String paymentKey;
+
+    @Column(name = "payment_id")
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private Failure failure;
+
+    @Column(name = "failure_message", length = 500)
+    private String failureMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+
+    public BookingSaga() {
+    }
+
+    public BookingSaga(Long rentalId, String paymentKey) {
+        this.rentalId = rentalId;
+        this.paymentKey = paymentKey;
+        this.state = State.RESERVED;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getPaymentKey() {
+        return paymentKey;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public Failure getFailure() {
+        return failure;
+    }
+
+    public void setFailure(Failure failure) {
+        this.failure = failure;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.CANCELLED;
+    }
+
+    /**
+     * Étapes de la saga.
+     */
+    public enum State {
+        /** Location enregistrée (PENDING), créneau bloqué ; prochaine étape : paiement */
+        RESERVED,
+        /** Échec d'une étape : remboursement éventuel puis libération du créneau */
+        COMPENSATING,
+        /** Location ACTIVE */
+        COMPLETED,
+        /** Location CANCELLED, paiement remboursé le cas échéant */
+        CANCELLED
+    }
+
+    /**
+     * Cause de la compensation.
+     */
+    public enum Failure {
+        PAYMENT_DECLINED,
+        PAYMENT_UNAVAILABLE
+    }
+}
@@ -0,0 +1,32 @@
+package com.carrental.rentalservice.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Verrou de réservation d'une voiture.
+ * La ligne est verrouillée en écriture pendant l'admission d'une réservation pour cette voiture,
+ * ce qui sérialise la vérification de chevauchement et l'insertion entre toutes les instances du service.
+ */
+@Entity
+@Table(name = "car_booking_locks")
+public class CarBookingLock {
+
+    @Id
+    @Column(name = "car_id")
+    private Long carId;
+
+    public CarBookingLock() {
+    }
+
+    public CarBookingLock(Long carId) {
+        this.carId = carId;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+}
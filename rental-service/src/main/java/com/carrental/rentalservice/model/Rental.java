@@ -43,6 +43,9 @@ public class Rental {
     @Column(name = "total_amount")
     private Double totalAmount;
 
+    @Column(name = "idempotency_key", unique = true, length = 100)
+    private String idempotencyKey;
+
     public Rental() {
     }
 
@@ -119,10 +122,20 @@ public class Rental {
         this.totalAmount = totalAmount;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     /**
      * Énumération pour le statut de la location.
      */
     public enum RentalStatus {
+        /** Réservée, paiement ou confirmation de la voiture en cours (saga de réservation) */
+        PENDING,
         ACTIVE,
         COMPLETED,
         CANCELLED
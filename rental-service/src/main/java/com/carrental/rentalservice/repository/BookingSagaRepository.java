@@ -0,0 +1,27 @@
+package com.carrental.rentalservice.repository;
+
+import com.carrental.rentalservice.model.BookingSaga;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour l'état des sagas de réservation.
+ */
+public interface BookingSagaRepository extends JpaRepository<BookingSaga, Long> {
+
+    /**
+     * Trouver les sagas non terminées qui n'ont pas avancé depuis {@code before}, les plus anciennes d'abord.
+     */
+    List<BookingSaga> findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(Collection<BookingSaga.State> states,
+                                                                          Instant before, Pageable page);
+
+    /**
+     * Trouver la saga d'une location.
+     */
+    Optional<BookingSaga> findByRentalId(Long rentalId);
+}
@@ -0,0 +1,26 @@
+package com.carrental.rentalservice.repository;
+
+import com.carrental.rentalservice.model.CarBookingLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository pour les verrous de réservation par voiture.
+ */
+public interface CarBookingLockRepository extends JpaRepository<CarBookingLock, Long> {
+
+    /**
+     * Verrouiller la ligne d'une voiture jusqu'à la fin de la transaction (SELECT ... FOR UPDATE).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT l FROM CarBookingLock l WHERE l.carId = :carId")
+    Optional<CarBookingLock> lockByCarId(@Param("carId") Long carId);
+}
@@ -1,12 +1,16 @@
 package com.carrental.rentalservice.repository;
 
 import com.carrental.rentalservice.model.Rental;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour les entités de location.
@@ -24,15 +28,43 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     List<Rental> findByCarId(Long carId);
 
     /**
-     * Trouver les locations actives pour une voiture spécifique dans une plage de dates.
+     * Trouver les locations de plusieurs voitures en une requête.
+     */
+    List<Rental> findByCarIdIn(Collection<Long> carIds);
+
+    /**
+     * Trouver les locations d'ID supérieur à {@code afterId}, par ID croissant (parcours par clé primaire).
+     */
+    List<Rental> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable page);
+
+    /**
+     * Trouver la location créée avec une clé d'idempotence.
+     */
+    Optional<Rental> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Trouver les locations actives ou en cours de réservation pour une voiture spécifique dans une plage de dates.
      */
     @Query("SELECT r FROM Rental r WHERE r.carId = :carId " +
-           "AND r.status = 'ACTIVE' " +
+           "AND r.status IN ('ACTIVE', 'PENDING') " +
            "AND ((r.startDate <= :endDate AND r.endDate >= :startDate))")
     List<Rental> findActiveRentalsForCarInDateRange(
             @Param("carId") Long carId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
-}
 
+    /**
+     * Trouver les IDs des locations actives terminées avant {@code today}, les plus anciennes d'abord
+     * (index {@code idx_rentals_status_end_date}).
+     */
+    @Query("SELECT r.id FROM Rental r WHERE r.status = 'ACTIVE' AND r.endDate < :today ORDER BY r.endDate, r.id")
+    List<Long> findExpiredRentalIds(@Param("today") LocalDate today, Pageable page);
+
+    /**
+     * Terminer des locations actives en une requête ; une location qui n'est plus ACTIVE n'est pas modifiée.
+     */
+    @Modifying
+    @Query("UPDATE Rental r SET r.status = 'COMPLETED' WHERE r.id IN :ids AND r.status = 'ACTIVE'")
+    int completeRentals(@Param("ids") Collection<Long> ids);
+}
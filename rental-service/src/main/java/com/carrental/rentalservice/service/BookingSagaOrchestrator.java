@@ -0,0 +1,334 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.client.CarServiceClient;
+import com.carrental.rentalservice.client.PaymentServiceClient;
+import com.carrental.rentalservice.dto.Car;
+import com.carrental.rentalservice.dto.PaymentRequest;
+import com.carrental.rentalservice.dto.PaymentResponse;
+import com.carrental.rentalservice.metrics.BookingMetrics;
+import com.carrental.rentalservice.model.BookingSaga;
+import com.carrental.rentalservice.model.Rental;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import com.carrental.rentalservice.repository.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Orchestration de la saga de réservation : réservation du créneau, puis paiement.
+ *
+ * <p>Chaque transition est enregistrée dans sa propre transaction courte ; aucun appel distant n'est fait pendant
+ * qu'une connexion à la base est tenue. Les étapes distantes s'exécutent sur l'exécuteur {@code bookingSagaExecutor}
+ * et sont retentées {@code booking.saga.step-attempts} fois. En cas d'échec définitif, la saga est compensée :
+ * remboursement du paiement s'il a eu lieu, puis libération du créneau (location CANCELLED). Le statut de la voiture
+ * dans car-service n'est pas modifié : la disponibilité découle du calendrier des locations.</p>
+ *
+ * <p>Une saga dont une étape reste en échec (payment-service injoignable, arrêt de l'instance...) garde son état
+ * et est reprise par {@link BookingSagaRecovery}.</p>
+ */
+@Service
+public class BookingSagaOrchestrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSagaOrchestrator.class);
+
+    private final RentalRepository rentalRepository;
+    private final BookingSagaRepository sagaRepository;
+    private final CarServiceClient carServiceClient;
+    private final PaymentServiceClient paymentServiceClient;
+    private final BookingMetrics bookingMetrics;
+    private final TransactionTemplate transaction;
+    private final Executor executor;
+    private final int stepAttempts;
+    private final Duration retryBackoff;
+    private final Duration responseTimeout;
+
+    public BookingSagaOrchestrator(RentalRepository rentalRepository,
+                                   BookingSagaRepository sagaRepository,
+                                   CarServiceClient carServiceClient,
+                                   PaymentServiceClient paymentServiceClient,
+                                   BookingMetrics bookingMetrics,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("bookingSagaExecutor") Executor executor,
+                                   @Value("${booking.saga.step-attempts:3}") int stepAttempts,
+                                   @Value("${booking.saga.retry-backoff:200ms}") Duration retryBackoff,
+                                   @Value("${booking.saga.response-timeout:10s}") Duration responseTimeout) {
+        this.rentalRepository = rentalRepository;
+        this.sagaRepository = sagaRepository;
+        this.carServiceClient = carServiceClient;
+        this.paymentServiceClient = paymentServiceClient;
+        this.bookingMetrics = bookingMetrics;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.stepAttempts = stepAttempts;
+        this.retryBackoff = retryBackoff;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /**
+     * Démarrer la saga d'une location qui vient d'être enregistrée en PENDING.
+     * Appelé dans la transaction de réservation, sous le verrou de la voiture.
+     */
+    public BookingSaga begin(Rental pendingRental) {
+        return sagaRepository.save(new BookingSaga(pendingRental.getId(), UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Exécuter les étapes restantes de la saga et attendre son issue au plus {@code booking.saga.response-timeout}.
+     *
+     * @param rental location PENDING enregistrée par la réservation
+     * @param car voiture déjà lue par l'appelant, ou {@code null} pour la relire
+     * @return la location ACTIVE, ou encore PENDING si la saga n'est pas terminée (elle continue en arrière-plan
+     * ou sera reprise)
+     * @throws ResponseStatusException si la réservation a été annulée (paiement refusé : 402, autre échec : 503)
+     */
+    public Rental run(BookingSaga saga, Rental rental, Car car) {
+        CompletableFuture<Rental> outcome = CompletableFuture.supplyAsync(() -> advance(saga, rental, car), executor);
+        try {
+            return outcome.get(responseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return currentRental(saga.getRentalId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return currentRental(saga.getRentalId());
+        }
+    }
+
+    /**
+     * Reprendre une saga interrompue, sur le thread appelant.
+     *
+     * @param giveUpBefore une saga toujours bloquée à l'étape du paiement et créée avant cette date est compensée
+     * @return {@code true} si la saga est terminée
+     */
+    boolean resume(BookingSaga saga, Instant giveUpBefore) {
+        BookingSaga claimed;
+        try {
+            // Revendiquer la saga : si une autre instance l'a fait avant, la version a changé
+            claimed = touch(saga);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return false;
+        }
+        try {
+            advance(claimed, currentRental(claimed.getRentalId()), null);
+        } catch (ResponseStatusException e) {
+            // Saga compensée : pas d'appelant à qui renvoyer l'erreur
+            return true;
+        }
+        BookingSaga current = sagaRepository.findById(claimed.getId()).orElseThrow();
+        if (!current.isFinished() && current.getState() == BookingSaga.State.RESERVED
+                && current.getCreatedAt().isBefore(giveUpBefore)) {
+            log.error("Booking saga {} abandoned: payment outcome unknown after {}, check payment key {}",
+                current.getId(), Duration.between(current.getCreatedAt(), Instant.now()), current.getPaymentKey());
+            try {
+                advance(compensate(current, BookingSaga.Failure.PAYMENT_UNAVAILABLE,
+                    "Payment service unavailable"), currentRental(current.getRentalId()), null);
+            } catch (ResponseStatusException e) {
+                return true;
+            }
+        }
+        return sagaRepository.findById(claimed.getId()).map(BookingSaga::isFinished).orElse(true);
+    }
+
+    /**
+     * Avancer la saga jusqu'à un état final, ou jusqu'à une étape toujours en échec après les tentatives.
+     * Les étapes distantes n'utilisent que les champs fixes de la location (voiture, client, montant) : elle n'est
+     * relue que dans les transactions des transitions.
+     */
+    private Rental advance(BookingSaga initial, Rental rental, Car knownCar) {
+        BookingSaga saga = initial;
+        Car car = knownCar;
+        try {
+            while (!saga.isFinished()) {
+                switch (saga.getState()) {
+                    case RESERVED -> {
+                        car = car != null ? car : fetchCar(rental.getCarId());
+                        PaymentResponse payment = pay(saga, rental, car);
+                        if (payment != null && "SUCCESS".equalsIgnoreCase(payment.getStatus())) {
+                            String paymentId = payment.getPaymentId();
+                            saga.setPaymentId(paymentId);
+                            saga = transition(saga, BookingSaga.State.COMPLETED, r -> {
+                                r.setPaymentId(paymentId);
+                                r.setStatus(Rental.RentalStatus.ACTIVE);
+                            });
+                            bookingMetrics.bookingCreated();
+                        } else {
+                            bookingMetrics.paymentFailed();
+                            saga = compensate(saga, BookingSaga.Failure.PAYMENT_DECLINED, "Payment processing failed: "
+                                + (payment != null ? payment.getMessage() : "Unknown error"));
+                        }
+                    }
+                    case COMPENSATING -> {
+                        if (saga.getPaymentId() != null) {
+                            refund(saga);
+                        }
+                        // La location garde sa clé d'idempotence : une requête rejouée reçoit le même échec
+                        saga = transition(saga, BookingSaga.State.CANCELLED,
+                            r -> r.setStatus(Rental.RentalStatus.CANCELLED));
+                        bookingMetrics.bookingCompensated(saga.getFailure());
+                    }
+                    default -> throw new IllegalStateException("Unexpected saga state " + saga.getState());
+                }
+            }
+        } catch (StepFailedException e) {
+            log.warn("Booking saga {} paused in state {}: {} failed after {} attempts ({}), will be resumed",
+                saga.getId(), saga.getState(), e.getStep(), stepAttempts, e.getCause().getMessage());
+            return currentRental(saga.getRentalId());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Avancée en parallèle par une reprise : elle termine la saga
+            return currentRental(saga.getRentalId());
+        }
+
+        if (saga.getState() == BookingSaga.State.CANCELLED) {
+            throw failure(saga);
+        }
+        return currentRental(saga.getRentalId());
+    }
+
+    /**
+     * Issue d'une réservation pour une requête rejouée avec la même clé d'idempotence.
+     *
+     * @return la location telle qu'elle est enregistrée
+     * @throws ResponseStatusException l'erreur renvoyée à la première requête si sa saga a été compensée
+     */
+    public Rental replay(Rental rental) {
+        if (rental.getStatus() == Rental.RentalStatus.CANCELLED) {
+            sagaRepository.findByRentalId(rental.getId())
+                .filter(saga -> saga.getState() == BookingSaga.State.CANCELLED)
+                .ifPresent(saga -> {
+                    throw failure(saga);
+                });
+        }
+        return rental;
+    }
+
+    /**
+     * Erreur d'une saga compensée : paiement refusé (402) ou autre échec (503).
+     */
+    private static ResponseStatusException failure(BookingSaga saga) {
+        HttpStatus status = saga.getFailure() == BookingSaga.Failure.PAYMENT_DECLINED
+            ? HttpStatus.PAYMENT_REQUIRED : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseStatusException(status, saga.getFailureMessage());
+    }
+
+    private PaymentResponse pay(BookingSaga saga, Rental rental, Car car) {
+        PaymentRequest paymentRequest = new PaymentRequest(
+            "stripe", // Méthode de paiement par défaut
+            rental.getTotalAmount(),
+            rental.getClientId(),
+            String.format("Rental for car %d (%s %s)", rental.getCarId(), car.getBrand(), car.getModel())
+        );
+        // Même clé à chaque tentative et à chaque reprise : payment-service l'enregistre en base (partagée par ses
+        // instances et conservée après un redémarrage avec le profil cluster) et ne débite qu'une fois. Si l'issue du premier débit n'a pas été
+        // enregistrée, la clé reste refusée (409) : la saga finit compensée et journalise la clé à vérifier.
+        return withAttempts("payment", () -> paymentServiceClient.processPayment(paymentRequest, saga.getPaymentKey())
+            .block());
+    }
+
+    private void refund(BookingSaga saga) {
+        PaymentResponse refund = withAttempts("refund", () -> paymentServiceClient.refundPayment(saga.getPaymentId())
+            .block());
+        if (refund == null || !"REFUNDED".equalsIgnoreCase(refund.getStatus())) {
+            throw new StepFailedException("refund", new IllegalStateException("Refund of "
+                + saga.getPaymentId() + " not confirmed"));
+        }
+    }
+
+    private Car fetchCar(Long carId) {
+        ResponseEntity<Car> response = withAttempts("car lookup", () -> carServiceClient.getCarById(carId));
+        if (response.getBody() == null) {
+            throw new StepFailedException("car lookup", new IllegalStateException("Car not found with ID: " + carId));
+        }
+        return response.getBody();
+    }
+
+    private <T> T withAttempts(String step, Supplier<T> call) {
+        RuntimeException failure = null;
+        for (int attempt = 1; attempt <= stepAttempts; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                failure = e;
+                if (attempt < stepAttempts) {
+                    pause(retryBackoff.multipliedBy(attempt));
+                }
+            }
+        }
+        throw new StepFailedException(step, failure);
+    }
+
+    private BookingSaga compensate(BookingSaga saga, BookingSaga.Failure failure, String message) {
+        saga.setFailure(failure);
+        saga.setFailureMessage(message.length() > 500 ? message.substring(0, 500) : message);
+        return transition(saga, BookingSaga.State.COMPENSATING, rental -> { });
+    }
+
+    /**
+     * Enregistrer l'état suivant de la saga et la modification correspondante de la location, dans une transaction.
+     */
+    private BookingSaga transition(BookingSaga saga, BookingSaga.State next, Consumer<Rental> rentalChange) {
+        return transaction.execute(status -> {
+            rentalChange.accept(currentRental(saga.getRentalId()));
+            saga.setState(next);
+            saga.setUpdatedAt(Instant.now());
+            return sagaRepository.save(saga);
+        });
+    }
+
+    private BookingSaga touch(BookingSaga saga) {
+        saga.setUpdatedAt(Instant.now());
+        return sagaRepository.save(saga);
+    }
+
+    private Rental currentRental(Long rentalId) {
+        return rentalRepository.findById(rentalId)
+            .orElseThrow(() -> new IllegalStateException("Rental not found for booking saga: " + rentalId));
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Étape distante toujours en échec après les tentatives.
+     */
+    private static class StepFailedException extends RuntimeException {
+
+        private final String step;
+
+        StepFailedException(String step, RuntimeException cause) {
+            super(step + " failed", cause);
+            this.step = step;
+        }
+
+        String getStep() {
+            return step;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.model.BookingSaga;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reprise des sagas de réservation interrompues.
+ *
+ * <p>Toutes les {@code booking.saga.recovery-interval}, les sagas non terminées qui n'ont pas avancé depuis
+ * {@code booking.saga.stale-after} sont reprises à leur étape enregistrée : après un arrêt de l'instance ou une
+ * panne de payment-service ou car-service. Une saga toujours bloquée au paiement après
+ * {@code booking.saga.give-up-after} est compensée (créneau libéré). Chaque saga est revendiquée par une mise à jour
+ * versionnée : avec plusieurs instances, une seule la reprend.</p>
+ */
+@Component
+public class BookingSagaRecovery implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSagaRecovery.class);
+
+    private static final Set<BookingSaga.State> UNFINISHED =
+        EnumSet.of(BookingSaga.State.RESERVED, BookingSaga.State.COMPENSATING);
+    private static final int BATCH_SIZE = 100;
+
+    private final BookingSagaRepository sagaRepository;
+    private final BookingSagaOrchestrator bookingSagas;
+    private final Duration interval;
+    private final Duration staleAfter;
+    private final Duration giveUpAfter;
+
+    public BookingSagaRecovery(BookingSagaRepository sagaRepository,
+                               BookingSagaOrchestrator bookingSagas,
+                               @Value("${booking.saga.recovery-interval:30s}") Duration interval,
+                               @Value("${booking.saga.stale-after:1m}") Duration staleAfter,
+                               @Value("${booking.saga.give-up-after:15m}") Duration giveUpAfter) {
+        this.sagaRepository = sagaRepository;
+        this.bookingSagas = bookingSagas;
+        this.interval = interval;
+        this.staleAfter = staleAfter;
+        this.giveUpAfter = giveUpAfter;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(this::resumeStaleSagas, interval, interval));
+    }
+
+    /**
+     * Reprendre les sagas non terminées qui n'avancent plus.
+     */
+    void resumeStaleSagas() {
+        Instant now = Instant.now();
+        List<BookingSaga> stale = sagaRepository.findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            UNFINISHED, now.minus(staleAfter), PageRequest.of(0, BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return;
+        }
+        int finished = 0;
+        for (BookingSaga saga : stale) {
+            try {
+                if (bookingSagas.resume(saga, now.minus(giveUpAfter))) {
+                    finished++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Booking saga {} could not be resumed: {}", saga.getId(), e.getMessage());
+            }
+        }
+        log.info("Resumed {} stale booking sagas, {} finished", stale.size(), finished);
+    }
+}
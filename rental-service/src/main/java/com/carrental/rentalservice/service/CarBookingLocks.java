@@ -0,0 +1,75 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.model.CarBookingLock;
+import com.carrental.rentalservice.repository.CarBookingLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Admission des réservations par voiture, sûre entre plusieurs instances.
+ * Le verrou est une ligne de {@code car_booking_locks} verrouillée en écriture dans la transaction de la réservation :
+ * il est porté par la base partagée, donc valable pour toutes les instances, et libéré au commit ou au rollback.
+ * Deux réservations pour des voitures différentes ne se bloquent jamais.
+ */
+@Component
+public class CarBookingLocks {
+
+    private final CarBookingLockRepository lockRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate newTransaction;
+    // Les lignes de verrou ne sont jamais supprimées : une fois vue, inutile de vérifier à nouveau
+    private final Set<Long> knownLocks = ConcurrentHashMap.newKeySet();
+
+    public CarBookingLocks(CarBookingLockRepository lockRepository, PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Exécuter {@code admission} dans une transaction qui détient le verrou de la voiture jusqu'au commit.
+     * Si une autre réservation pour la même voiture ne libère pas le verrou à temps, la requête est refusée (409).
+     */
+    public <T> T withCarLocked(Long carId, Supplier<T> admission) {
+        createLockIfAbsent(carId);
+        return transaction.execute(status -> {
+            try {
+                lockRepository.lockByCarId(carId)
+                    .orElseThrow(() -> new IllegalStateException("Booking lock row missing for car " + carId));
+            } catch (PessimisticLockingFailureException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Another booking for car " + carId + " is in progress, please retry", e);
+            }
+            return admission.get();
+        });
+    }
+
+    /**
+     * Créer la ligne de verrou à la première réservation de la voiture, dans sa propre transaction et avant la
+     * transaction de réservation (qui sinon devrait attendre une seconde connexion du pool en détenant la première).
+     */
+    private void createLockIfAbsent(Long carId) {
+        if (knownLocks.contains(carId)) {
+            return;
+        }
+        if (!lockRepository.existsById(carId)) {
+            try {
+                newTransaction.executeWithoutResult(status -> lockRepository.saveAndFlush(new CarBookingLock(carId)));
+            } catch (DataIntegrityViolationException e) {
+                // Créée entre-temps par une autre requête ou une autre instance
+            }
+        }
+        knownLocks.add(carId);
+    }
+}
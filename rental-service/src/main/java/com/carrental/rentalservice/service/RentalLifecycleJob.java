@@ -0,0 +1,89 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.metrics.BookingMetrics;
+import com.carrental.rentalservice.repository.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fin de vie des locations : une location ACTIVE dont la date de fin est passée devient COMPLETED.
+ *
+ * <p>Toutes les {@code rental.lifecycle.interval}, les locations expirées sont traitées par lots de
+ * {@code rental.lifecycle.batch-size} : une lecture indexée (statut, date de fin) puis un UPDATE groupé dans une
+ * transaction courte, pour ne jamais tenir de verrous longtemps. L'UPDATE ne modifie que les locations encore ACTIVE :
+ * le job peut tourner sur plusieurs instances en même temps.</p>
+ *
+ * <p>Le statut des voitures n'est pas modifié : la disponibilité découle du calendrier des locations, une location
+ * terminée ne bloque simplement plus aucune date.</p>
+ */
+@Component
+public class RentalLifecycleJob implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalLifecycleJob.class);
+
+    private final RentalRepository rentalRepository;
+    private final BookingMetrics bookingMetrics;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final int batchSize;
+
+    public RentalLifecycleJob(RentalRepository rentalRepository,
+                              BookingMetrics bookingMetrics,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${rental.lifecycle.enabled:true}") boolean enabled,
+                              @Value("${rental.lifecycle.interval:10m}") Duration interval,
+                              @Value("${rental.lifecycle.initial-delay:1m}") Duration initialDelay,
+                              @Value("${rental.lifecycle.batch-size:500}") int batchSize) {
+        this.rentalRepository = rentalRepository;
+        this.bookingMetrics = bookingMetrics;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (enabled) {
+            registrar.addFixedDelayTask(new FixedDelayTask(this::completeExpiredRentals, interval, initialDelay));
+        }
+    }
+
+    /**
+     * Terminer les locations expirées, lot par lot, jusqu'à épuisement.
+     */
+    void completeExpiredRentals() {
+        LocalDate today = LocalDate.now();
+        int completed = 0;
+        List<Long> rentalIds;
+        do {
+            rentalIds = rentalRepository.findExpiredRentalIds(today, PageRequest.of(0, batchSize));
+            if (rentalIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = rentalIds;
+            Integer updated = transaction.execute(status -> rentalRepository.completeRentals(chunk));
+            completed += updated;
+            bookingMetrics.rentalsCompleted(updated);
+        } while (rentalIds.size() == batchSize);
+
+        if (completed > 0) {
+            log.info("Rental lifecycle: {} rentals completed", completed);
+        }
+    }
+}
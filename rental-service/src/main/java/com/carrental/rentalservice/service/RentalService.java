@@ -1,19 +1,24 @@
 package com.carrental.rentalservice.service;
 
 import com.carrental.rentalservice.client.CarServiceClient;
-import com.carrental.rentalservice.client.PaymentServiceClient;
 import com.carrental.rentalservice.dto.*;
+import com.carrental.rentalservice.metrics.BookingMetrics;
+import com.carrental.rentalservice.model.BookingSaga;
 import com.carrental.rentalservice.model.Rental;
 import com.carrental.rentalservice.repository.RentalRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Service de gestion des locations de voitures.
@@ -22,24 +27,53 @@ import java.util.List;
 @Service
 public class RentalService {
 
+    /**
+     * Nombre maximal de voitures par lecture groupée des locations.
+     */
+    public static final int MAX_BATCH_CAR_IDS = 1000;
+
+    /**
+     * Nombre maximal de locations d'une page du flux par ID.
+     */
+    public static final int MAX_FEED_PAGE_SIZE = 1000;
+
     private final RentalRepository rentalRepository;
     private final CarServiceClient carServiceClient;
-    private final PaymentServiceClient paymentServiceClient;
+    private final BookingMetrics bookingMetrics;
+    private final CarBookingLocks carBookingLocks;
+    private final BookingSagaOrchestrator bookingSagas;
 
     public RentalService(RentalRepository rentalRepository,
                         CarServiceClient carServiceClient,
-                        PaymentServiceClient paymentServiceClient) {
+                        BookingMetrics bookingMetrics,
+                        CarBookingLocks carBookingLocks,
+                        BookingSagaOrchestrator bookingSagas) {
         this.rentalRepository = rentalRepository;
         this.carServiceClient = carServiceClient;
-        this.paymentServiceClient = paymentServiceClient;
+        this.bookingMetrics = bookingMetrics;
+        this.carBookingLocks = carBookingLocks;
+        this.bookingSagas = bookingSagas;
     }
 
     /**
      * Créer une nouvelle location/réservation.
      * Vérifie la disponibilité de la voiture et traite le paiement avant de confirmer la réservation.
+     *
+     * <p>La vérification de chevauchement et l'insertion de la location (PENDING) se font dans une transaction
+     * courte, sous le verrou de la voiture ({@link CarBookingLocks}) : la double réservation est impossible même avec
+     * plusieurs instances du service sur la même base. Le paiement et la mise à jour de car-service suivent, hors
+     * transaction, dans la saga de réservation ({@link BookingSagaOrchestrator}) qui compense en cas d'échec.
+     * Si {@code idempotencyKey} est fourni et qu'une location a déjà été créée avec cette clé, elle est renvoyée
+     * sans nouveau paiement ; si sa réservation a été annulée, la requête reçoit le même échec.</p>
+     *
+     * @return la location ACTIVE, ou PENDING si la saga n'est pas terminée dans le délai de réponse
      */
-    @Transactional
-    public Rental createRental(RentalRequest request) {
+    public Rental createRental(RentalRequest request, String idempotencyKey) {
+        Optional<Rental> previous = findByIdempotencyKey(idempotencyKey, request);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
         // Les validations de dates sont maintenant gérées par les annotations @ValidDateRange et @FutureOrPresent
 
         // Vérifier la disponibilité de la voiture via FeignClient
@@ -52,12 +86,34 @@ public class RentalService {
 
         Car car = carResponse.getBody();
 
-        // Vérifier si la voiture est disponible
+        // Voiture en maintenance ou hors service : non réservable, quelles que soient les dates.
+        // La disponibilité pour les dates demandées est vérifiée sur le calendrier des locations (chevauchements).
         if (!"AVAILABLE".equalsIgnoreCase(car.getStatus())) {
+            bookingMetrics.unavailableCarRejected();
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
                 "Car is not available for rental");
         }
 
+        // Une seule réservation à la fois pour cette voiture, toutes instances confondues
+        Reservation reservation = carBookingLocks.withCarLocked(request.getCarId(),
+            () -> reserve(request, idempotencyKey, car));
+        if (reservation.saga() == null) {
+            return reservation.rental();
+        }
+        return bookingSagas.run(reservation.saga(), reservation.rental(), car);
+    }
+
+    /**
+     * Vérifier les chevauchements et enregistrer la location en attente avec sa saga.
+     * Appelé dans la transaction qui détient le verrou de la voiture.
+     */
+    private Reservation reserve(RentalRequest request, String idempotencyKey, Car car) {
+        // Une requête rejouée a pu se terminer pendant l'attente du verrou
+        Optional<Rental> previous = findByIdempotencyKey(idempotencyKey, request);
+        if (previous.isPresent()) {
+            return new Reservation(previous.get(), null);
+        }
+
         // Vérifier les locations chevauchantes
         List<Rental> overlappingRentals = rentalRepository
             .findActiveRentalsForCarInDateRange(
@@ -67,6 +123,7 @@ public class RentalService {
             );
 
         if (!overlappingRentals.isEmpty()) {
+            bookingMetrics.doubleBookingRejected();
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
                 "Car is already rented for the requested dates");
         }
@@ -75,49 +132,54 @@ public class RentalService {
         long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1;
         Double totalAmount = car.getPricePerDay() * days;
 
-        // Traiter le paiement via WebClient
-        PaymentRequest paymentRequest = new PaymentRequest(
-            "stripe", // Méthode de paiement par défaut
-            totalAmount,
-            request.getClientId(),
-            String.format("Rental for car %d (%s %s)", car.getId(), car.getBrand(), car.getModel())
-        );
+        // Bloquer le créneau : la location reste PENDING jusqu'à la fin de la saga
+        Rental rental = new Rental();
+        rental.setCarId(request.getCarId());
+        rental.setClientId(request.getClientId());
+        rental.setStartDate(request.getStartDate());
+        rental.setEndDate(request.getEndDate());
+        rental.setStatus(Rental.RentalStatus.PENDING);
+        rental.setTotalAmount(totalAmount);
+        rental.setIdempotencyKey(idempotencyKey);
 
         try {
-            PaymentResponse paymentResponse = paymentServiceClient.processPayment(paymentRequest)
-                .block(); // Appel bloquant pour traitement synchrone
+            // Flush immédiat : une clé d'idempotence réutilisée pour une autre voiture échoue ici et non au commit
+            Rental savedRental = rentalRepository.saveAndFlush(rental);
+            return new Reservation(savedRental, bookingSagas.begin(savedRental));
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A rental with the same idempotency key is being created", e);
+        }
+    }
 
-            if (paymentResponse == null || !"SUCCESS".equalsIgnoreCase(paymentResponse.getStatus())) {
-                throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, 
-                    "Payment processing failed: " + (paymentResponse != null ? paymentResponse.getMessage() : "Unknown error"));
-            }
+    /**
+     * État courant d'une location créée avec une clé d'idempotence, pour une requête rejouée.
+     *
+     * @throws ResponseStatusException l'échec de la réservation si elle a été annulée
+     */
+    public Rental replay(Rental rental) {
+        return bookingSagas.replay(getRentalById(rental.getId()));
+    }
 
-            // Créer la location
-            Rental rental = new Rental();
-            rental.setCarId(request.getCarId());
-            rental.setClientId(request.getClientId());
-            rental.setStartDate(request.getStartDate());
-            rental.setEndDate(request.getEndDate());
-            rental.setStatus(Rental.RentalStatus.ACTIVE);
-            rental.setPaymentId(paymentResponse.getPaymentId());
-            rental.setTotalAmount(totalAmount);
-
-            Rental savedRental = rentalRepository.save(rental);
-
-            // Mettre à jour le statut de la voiture à LOUE
-            car.setStatus("RENTED");
-            // Définir l'ID explicitement car il peut être nul dans la réponse de Spring Data REST
-            car.setId(request.getCarId());
-            carServiceClient.updateCar(request.getCarId(), car);
-
-            return savedRental;
-
-        } catch (ResponseStatusException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
-                "Error processing payment: " + e.getMessage(), e);
+    /**
+     * Location déjà créée avec cette clé d'idempotence, le cas échéant.
+     * Une clé réutilisée avec une requête différente est refusée, une réservation annulée renvoie son échec.
+     */
+    private Optional<Rental> findByIdempotencyKey(String idempotencyKey, RentalRequest request) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
         }
+        Optional<Rental> previous = rentalRepository.findByIdempotencyKey(idempotencyKey);
+        previous.ifPresent(rental -> {
+            if (!Objects.equals(rental.getCarId(), request.getCarId())
+                    || !Objects.equals(rental.getClientId(), request.getClientId())
+                    || !Objects.equals(rental.getStartDate(), request.getStartDate())
+                    || !Objects.equals(rental.getEndDate(), request.getEndDate())) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency key was already used for a different rental request");
+            }
+        });
+        return previous.map(bookingSagas::replay);
     }
 
     /**
@@ -149,5 +211,33 @@ public class RentalService {
     public List<Rental> getRentalsByCarId(Long carId) {
         return rentalRepository.findByCarId(carId);
     }
-}
 
+    /**
+     * Obtenir les locations de plusieurs voitures (au plus {@link #MAX_BATCH_CAR_IDS}).
+     */
+    public List<Rental> getRentalsByCarIds(Collection<Long> carIds) {
+        if (carIds.size() > MAX_BATCH_CAR_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + MAX_BATCH_CAR_IDS + " car ids per request");
+        }
+        return carIds.isEmpty() ? List.of() : rentalRepository.findByCarIdIn(carIds);
+    }
+
+    /**
+     * Obtenir les locations créées après {@code afterId}, par ID croissant (au plus {@link #MAX_FEED_PAGE_SIZE}).
+     * Permet à un client de suivre toutes les locations page par page en reprenant au dernier ID reçu.
+     */
+    public List<Rental> getRentalsAfter(long afterId, int limit) {
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Limit must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        return rentalRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Location enregistrée et saga à exécuter, ou location existante ({@code saga} nul).
+     */
+    private record Reservation(Rental rental, BookingSaga saga) {
+    }
+}
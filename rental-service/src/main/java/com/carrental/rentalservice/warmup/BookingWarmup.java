@@ -0,0 +1,190 @@
+package com.carrental.rentalservice.warmup;
+
+import com.carrental.common.warmup.WarmupStubServer;
+import com.carrental.rentalservice.client.CarServiceClient;
+import com.carrental.rentalservice.client.PaymentServiceClient;
+import com.carrental.rentalservice.client.PaymentServiceClientImpl;
+import com.carrental.rentalservice.dto.RentalRequest;
+import com.carrental.rentalservice.metrics.BookingMetrics;
+import com.carrental.rentalservice.model.Rental;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import com.carrental.rentalservice.repository.RentalRepository;
+import com.carrental.rentalservice.service.BookingSagaOrchestrator;
+import com.carrental.rentalservice.service.CarBookingLocks;
+import com.carrental.rentalservice.service.RentalService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.cloud.openfeign.FeignClientBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readiness-gated warmup of the booking path.
+ *
+ * <p>Runs before the application reports ready (readiness stays {@code REFUSING_TRAFFIC} until every
+ * {@link ApplicationRunner} has returned), so the first real requests hit JIT-compiled code, created Feign and
+ * Jackson serializers and cached Hibernate query plans. Each iteration is a dry-run booking:</p>
+ * <ul>
+ *     <li>the JSON request is deserialized and validated like in the controller</li>
+ *     <li>{@link RentalService#createRental} runs against a loopback stub of car-service and payment-service, through
+ *     a Feign client and a WebClient built like the production ones, and with the real {@link RentalRepository} in a
+ *     transaction that is always rolled back; the booking saga runs on the calling thread so that its steps join
+ *     that transaction</li>
+ *     <li>the result is serialized and a read-only {@code GET /api/rentals/car/{id}} is sent to this service</li>
+ * </ul>
+ *
+ * <p>Stops after {@code warmup.iterations} bookings or {@code warmup.max-duration}, whichever comes first, and
+ * publishes the elapsed time as the {@code application.warmup.duration} gauge.</p>
+ */
+@Component
+@Order(1)
+public class BookingWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingWarmup.class);
+
+    private static final int FLEET_SIZE = 50;
+    private static final int REPORT_WINDOW = 50;
+
+    private final ApplicationContext applicationContext;
+    private final RentalRepository rentalRepository;
+    private final BookingSagaRepository bookingSagaRepository;
+    private final CarBookingLocks carBookingLocks;
+    private final PlatformTransactionManager transactionManager;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AtomicLong durationMillis = new AtomicLong();
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public BookingWarmup(ApplicationContext applicationContext,
+                         RentalRepository rentalRepository,
+                         BookingSagaRepository bookingSagaRepository,
+                         CarBookingLocks carBookingLocks,
+                         PlatformTransactionManager transactionManager,
+                         WebClient.Builder webClientBuilder,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         MeterRegistry meterRegistry,
+                         @Value("${warmup.enabled:true}") boolean enabled,
+                         @Value("${warmup.iterations:1000}") int iterations,
+                         @Value("${warmup.max-duration:30s}") Duration maxDuration) {
+        this.applicationContext = applicationContext;
+        this.rentalRepository = rentalRepository;
+        this.bookingSagaRepository = bookingSagaRepository;
+        this.carBookingLocks = carBookingLocks;
+        this.transactionManager = transactionManager;
+        this.webClientBuilder = webClientBuilder;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        TimeGauge.builder("application.warmup.duration", durationMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Time spent warming up the booking path before accepting traffic")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        try (WarmupStubServer stubs = startStubs()) {
+            // Same contextId as the production client, so the same encoder, decoder and capabilities are used
+            CarServiceClient carClient = new FeignClientBuilder(applicationContext)
+                .forType(CarServiceClient.class, "car-service")
+                .url(stubs.baseUrl())
+                .build();
+            PaymentServiceClient paymentClient = new PaymentServiceClientImpl(webClientBuilder.clone(), stubs.baseUrl());
+            // Business counters of the dry run go to a throwaway registry
+            BookingMetrics dryRunMetrics = new BookingMetrics(new SimpleMeterRegistry());
+            BookingSagaOrchestrator dryRunSagas = new BookingSagaOrchestrator(rentalRepository, bookingSagaRepository,
+                carClient, paymentClient, dryRunMetrics, transactionManager, Runnable::run, 1, Duration.ZERO, maxDuration);
+            RentalService dryRun = new RentalService(rentalRepository, carClient, dryRunMetrics, carBookingLocks, dryRunSagas);
+            TransactionTemplate rollbackOnly = new TransactionTemplate(transactionManager);
+            HttpClient selfClient = HttpClient.newHttpClient();
+            Integer port = applicationContext.getEnvironment().getProperty("local.server.port", Integer.class);
+
+            long deadline = start + maxDuration.toNanos();
+            long[] latencies = new long[iterations];
+            int done = 0;
+            while (done < iterations && System.nanoTime() < deadline) {
+                long begin = System.nanoTime();
+                long carId = 1 + done % FLEET_SIZE;
+                RentalRequest request = objectMapper.readValue(requestJson(carId, done), RentalRequest.class);
+                if (!validator.validate(request).isEmpty()) {
+                    throw new IllegalStateException("Warmup request is invalid");
+                }
+                Rental rental = rollbackOnly.execute(status -> {
+                    status.setRollbackOnly();
+                    return dryRun.createRental(request, null);
+                });
+                objectMapper.writeValueAsBytes(rental);
+                if (port != null) {
+                    selfClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rentals/car/" + carId)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                }
+                latencies[done++] = System.nanoTime() - begin;
+            }
+            durationMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Booking warmup completed in {} ms: {} dry-run bookings, mean {} ms over the first {} and {} ms over the last {}",
+                durationMillis.get(), done, meanMillis(latencies, 0, Math.min(REPORT_WINDOW, done)), Math.min(REPORT_WINDOW, done),
+                meanMillis(latencies, Math.max(0, done - REPORT_WINDOW), done), Math.min(REPORT_WINDOW, done));
+        } catch (Exception e) {
+            // Don't fail startup - the service still works, only the first requests are slower
+            durationMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.warn("Booking warmup aborted after {} ms: {}", durationMillis.get(), e.getMessage());
+        }
+    }
+
+    private WarmupStubServer startStubs() throws IOException {
+        return new WarmupStubServer()
+            .route("/api/cars/", request -> String.format(Locale.ROOT,
+                "{\"id\":%d,\"brand\":\"Warmup\",\"model\":\"Car\",\"year\":2024,"
+                    + "\"status\":\"AVAILABLE\",\"pricePerDay\":50.0}", request.trailingId()))
+            .route("/api/payments/process", request ->
+                "{\"paymentId\":\"warmup\",\"status\":\"SUCCESS\",\"message\":\"Warmup\",\"amount\":0.0}")
+            .start();
+    }
+
+    private static String requestJson(long carId, int iteration) {
+        LocalDate start = LocalDate.now().plusDays(1 + iteration % 365);
+        return String.format(Locale.ROOT, "{\"carId\":%d,\"clientId\":\"warmup-%d\",\"startDate\":\"%s\",\"endDate\":\"%s\"}",
+            carId, iteration, start, start.plusDays(1 + iteration % 7));
+    }
+
+    private static String meanMillis(long[] latencies, int from, int to) {
+        double mean = to > from ? Arrays.stream(latencies, from, to).average().orElse(0) / 1_000_000.0 : 0;
+        return String.format(Locale.ROOT, "%.2f", mean);
+    }
+}
@@ -0,0 +1,15 @@
+-- Rentals table (H2 and PostgreSQL compatible)
+CREATE TABLE rentals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    car_id BIGINT NOT NULL,
+    client_id VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_id VARCHAR(255),
+    total_amount DOUBLE PRECISION
+);
+
+-- Overlap check and per-car listing
+CREATE INDEX idx_rentals_car_dates ON rentals (car_id, start_date, end_date);
+CREATE INDEX idx_rentals_client ON rentals (client_id);
@@ -0,0 +1,9 @@
+-- Client-supplied Idempotency-Key of the booking request; a retried request returns the existing rental
+ALTER TABLE rentals ADD COLUMN idempotency_key VARCHAR(100);
+ALTER TABLE rentals ADD CONSTRAINT uk_rentals_idempotency_key UNIQUE (idempotency_key);
+
+-- One row per car, locked (SELECT ... FOR UPDATE) while a booking for that car is admitted,
+-- so the overlap check and the insert are serialized per car across all instances sharing the database
+CREATE TABLE car_booking_locks (
+    car_id BIGINT PRIMARY KEY
+);
@@ -0,0 +1,18 @@
+-- Booking saga: one row per booking, advanced step by step (reserve, pay, confirm car status) in short transactions.
+-- The rental stays PENDING until the saga completes (ACTIVE) or is compensated (CANCELLED).
+CREATE TABLE booking_sagas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rental_id BIGINT NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    payment_key VARCHAR(64) NOT NULL,
+    payment_id VARCHAR(255),
+    failure VARCHAR(30),
+    failure_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT uk_booking_sagas_rental UNIQUE (rental_id)
+);
+
+-- Recovery scan of unfinished sagas
+CREATE INDEX idx_booking_sagas_state_updated ON booking_sagas (state, updated_at);
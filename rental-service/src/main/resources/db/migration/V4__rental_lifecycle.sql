@@ -0,0 +1,2 @@
+-- Lifecycle job: range scan of ACTIVE rentals whose end date has passed
+CREATE INDEX idx_rentals_status_end_date ON rentals (status, end_date);
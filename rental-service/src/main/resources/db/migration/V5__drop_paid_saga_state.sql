@@ -0,0 +1,7 @@
+-- The PAID saga state and the CAR_UPDATE_FAILED failure are no longer produced (the booking does not update the car
+-- status any more). Finish the sagas that a durable database may still hold in PAID, as the saga did: the payment
+-- is already on the rental, which becomes ACTIVE.
+UPDATE rentals SET status = 'ACTIVE'
+WHERE status = 'PENDING' AND id IN (SELECT rental_id FROM booking_sagas WHERE state = 'PAID');
+UPDATE booking_sagas SET state = 'COMPLETED' WHERE state = 'PAID';
+UPDATE booking_sagas SET failure = NULL WHERE failure = 'CAR_UPDATE_FAILED';
@@ -0,0 +1,201 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.client.CarServiceClient;
+import com.carrental.rentalservice.client.PaymentServiceClient;
+import com.carrental.rentalservice.dto.Car;
+import com.carrental.rentalservice.dto.PaymentResponse;
+import com.carrental.rentalservice.metrics.BookingMetrics;
+import com.carrental.rentalservice.model.BookingSaga;
+import com.carrental.rentalservice.model.Rental;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import com.carrental.rentalservice.repository.RentalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingSagaOrchestratorTest {
+
+    private static final long RENTAL_ID = 10L;
+    private static final long SAGA_ID = 20L;
+
+    private final RentalRepository rentalRepository = mock(RentalRepository.class);
+    private final BookingSagaRepository sagaRepository = mock(BookingSagaRepository.class);
+    private final CarServiceClient carServiceClient = mock(CarServiceClient.class);
+    private final PaymentServiceClient paymentServiceClient = mock(PaymentServiceClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BookingSagaOrchestrator orchestrator;
+    private Rental rental;
+    private BookingSaga saga;
+
+    @BeforeEach
+    void setUp() {
+        orchestrator = new BookingSagaOrchestrator(rentalRepository, sagaRepository, carServiceClient,
+            paymentServiceClient, new BookingMetrics(registry), mock(PlatformTransactionManager.class),
+            Runnable::run, 2, Duration.ZERO, Duration.ofSeconds(5));
+
+        rental = new Rental(1L, "client-1", LocalDate.now(), LocalDate.now().plusDays(2), Rental.RentalStatus.PENDING);
+        rental.setId(RENTAL_ID);
+        rental.setTotalAmount(150.0);
+        rental.setIdempotencyKey("booking-key");
+        saga = new BookingSaga(RENTAL_ID, "payment-key");
+        ReflectionTestUtils.setField(saga, "id", SAGA_ID);
+
+        when(rentalRepository.findById(RENTAL_ID)).thenReturn(Optional.of(rental));
+        when(sagaRepository.save(any(BookingSaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sagaRepository.findById(SAGA_ID)).thenAnswer(invocation -> Optional.of(saga));
+        when(carServiceClient.getCarById(1L)).thenReturn(ResponseEntity.ok(car()));
+    }
+
+    @Test
+    void acceptedPaymentActivatesTheRental() {
+        when(paymentServiceClient.processPayment(any(), eq("payment-key")))
+            .thenReturn(Mono.just(new PaymentResponse("ch_1", "SUCCESS", "ok", 150.0)));
+
+        Rental result = orchestrator.run(saga, rental, car());
+
+        assertThat(result.getStatus()).isEqualTo(Rental.RentalStatus.ACTIVE);
+        assertThat(result.getPaymentId()).isEqualTo("ch_1");
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.COMPLETED);
+    }
+
+    @Test
+    void declinedPaymentCancelsTheRentalAndKeepsItsKey() {
+        when(paymentServiceClient.processPayment(any(), eq("payment-key")))
+            .thenReturn(Mono.just(new PaymentResponse(null, "FAILED", "declined", 150.0)));
+
+        assertThatThrownBy(() -> orchestrator.run(saga, rental, car()))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYMENT_REQUIRED));
+
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.CANCELLED);
+        assertThat(saga.getFailure()).isEqualTo(BookingSaga.Failure.PAYMENT_DECLINED);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.CANCELLED);
+        assertThat(rental.getIdempotencyKey()).isEqualTo("booking-key");
+        verify(paymentServiceClient, never()).refundPayment(anyString());
+    }
+
+    @Test
+    void replayOfCancelledBookingGetsTheSameFailure() {
+        saga.setState(BookingSaga.State.CANCELLED);
+        saga.setFailure(BookingSaga.Failure.PAYMENT_DECLINED);
+        rental.setStatus(Rental.RentalStatus.CANCELLED);
+        when(sagaRepository.findByRentalId(RENTAL_ID)).thenReturn(Optional.of(saga));
+
+        assertThatThrownBy(() -> orchestrator.replay(rental))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYMENT_REQUIRED));
+    }
+
+    @Test
+    void compensationRefundsTheTakenPayment() {
+        saga.setState(BookingSaga.State.COMPENSATING);
+        saga.setPaymentId("ch_1");
+        saga.setFailure(BookingSaga.Failure.PAYMENT_UNAVAILABLE);
+        when(paymentServiceClient.refundPayment("ch_1"))
+            .thenReturn(Mono.just(new PaymentResponse("ch_1", "REFUNDED", "refunded", null)));
+
+        assertThat(orchestrator.resume(saga, Instant.now())).isTrue();
+
+        verify(paymentServiceClient).refundPayment("ch_1");
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.CANCELLED);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.CANCELLED);
+        assertThat(registry.get("rental.bookings.compensated").tag("reason", "payment_unavailable").counter()
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    void unconfirmedRefundLeavesTheSagaToBeResumed() {
+        saga.setState(BookingSaga.State.COMPENSATING);
+        saga.setPaymentId("ch_1");
+        saga.setFailure(BookingSaga.Failure.PAYMENT_UNAVAILABLE);
+        when(paymentServiceClient.refundPayment("ch_1")).thenReturn(Mono.error(new IllegalStateException("down")));
+
+        assertThat(orchestrator.resume(saga, Instant.now().minusSeconds(60))).isFalse();
+
+        verify(paymentServiceClient, times(2)).refundPayment("ch_1");
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.COMPENSATING);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.PENDING);
+    }
+
+    @Test
+    void resumeRetriesThePaymentWithTheSameKey() {
+        when(paymentServiceClient.processPayment(any(), anyString()))
+            .thenReturn(Mono.just(new PaymentResponse("ch_1", "SUCCESS", "ok", 150.0)));
+
+        assertThat(orchestrator.resume(saga, Instant.now().minusSeconds(60))).isTrue();
+
+        verify(paymentServiceClient).processPayment(any(), eq("payment-key"));
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.COMPLETED);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.ACTIVE);
+    }
+
+    @Test
+    void resumeLosesTheClaimToAnotherInstance() {
+        when(sagaRepository.save(any(BookingSaga.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(BookingSaga.class, SAGA_ID));
+
+        assertThat(orchestrator.resume(saga, Instant.now())).isFalse();
+
+        verify(paymentServiceClient, never()).processPayment(any(), anyString());
+        verify(carServiceClient, never()).getCarById(anyLong());
+    }
+
+    @Test
+    void paymentStillUnavailableAfterGiveUpIsCompensated() {
+        when(paymentServiceClient.processPayment(any(), anyString()))
+            .thenReturn(Mono.error(new IllegalStateException("down")));
+
+        assertThat(orchestrator.resume(saga, Instant.now().plusSeconds(60))).isTrue();
+
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.CANCELLED);
+        assertThat(saga.getFailure()).isEqualTo(BookingSaga.Failure.PAYMENT_UNAVAILABLE);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.CANCELLED);
+        verify(paymentServiceClient, never()).refundPayment(anyString());
+    }
+
+    @Test
+    void paymentStillUnavailableBeforeGiveUpStaysReserved() {
+        when(paymentServiceClient.processPayment(any(), anyString()))
+            .thenReturn(Mono.error(new IllegalStateException("down")));
+
+        assertThat(orchestrator.resume(saga, Instant.now().minusSeconds(60))).isFalse();
+
+        assertThat(saga.getState()).isEqualTo(BookingSaga.State.RESERVED);
+        assertThat(rental.getStatus()).isEqualTo(Rental.RentalStatus.PENDING);
+    }
+
+    private static Car car() {
+        Car car = new Car();
+        car.setId(1L);
+        car.setBrand("Renault");
+        car.setModel("Clio");
+        car.setStatus("AVAILABLE");
+        car.setPricePerDay(50.0);
+        return car;
+    }
+}
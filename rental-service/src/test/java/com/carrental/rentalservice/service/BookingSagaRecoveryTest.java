@@ -0,0 +1,70 @@
+package com.carrental.rentalservice.service;
+
+import com.carrental.rentalservice.model.BookingSaga;
+import com.carrental.rentalservice.repository.BookingSagaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingSagaRecoveryTest {
+
+    private final BookingSagaRepository sagaRepository = mock(BookingSagaRepository.class);
+    private final BookingSagaOrchestrator orchestrator = mock(BookingSagaOrchestrator.class);
+    private final BookingSagaRecovery recovery = new BookingSagaRecovery(sagaRepository, orchestrator,
+        Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(15));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resumesStaleUnfinishedSagas() {
+        BookingSaga first = new BookingSaga(1L, "key-1");
+        BookingSaga second = new BookingSaga(2L, "key-2");
+        when(sagaRepository.findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(any(), any(), any()))
+            .thenReturn(List.of(first, second));
+        when(orchestrator.resume(any(), any())).thenReturn(true);
+
+        Instant before = Instant.now();
+        recovery.resumeStaleSagas();
+
+        ArgumentCaptor<Collection<BookingSaga.State>> states = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Instant> staleBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(sagaRepository).findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(states.capture(),
+            staleBefore.capture(), any());
+        assertThat(states.getValue()).containsExactlyInAnyOrder(BookingSaga.State.RESERVED,
+            BookingSaga.State.COMPENSATING);
+        assertThat(staleBefore.getValue()).isCloseTo(before.minus(Duration.ofMinutes(1)),
+            within(5, ChronoUnit.SECONDS));
+
+        ArgumentCaptor<Instant> giveUpBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(orchestrator).resume(eq(first), giveUpBefore.capture());
+        verify(orchestrator).resume(eq(second), any());
+        assertThat(giveUpBefore.getValue()).isCloseTo(before.minus(Duration.ofMinutes(15)),
+            within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void oneFailingSagaDoesNotStopTheOthers() {
+        BookingSaga failing = new BookingSaga(1L, "key-1");
+        BookingSaga next = new BookingSaga(2L, "key-2");
+        when(sagaRepository.findByStateInAndUpdatedAtBeforeOrderByUpdatedAtAsc(any(), any(), any()))
+            .thenReturn(List.of(failing, next));
+        when(orchestrator.resume(eq(failing), any()))
+            .thenThrow(new IllegalStateException("database down"));
+
+        recovery.resumeStaleSagas();
+
+        verify(orchestrator).resume(eq(next), any());
+    }
+}
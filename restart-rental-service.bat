@@ -9,8 +9,11 @@ for /f "tokens=5" %%a in ('netstat -ano ^| findstr :8082 ^| findstr LISTENING')
 
 timeout /t 3 /nobreak >nul
 
+REM Bookings are kept across restarts (file-backed database, see application-durable.properties)
+if "%SPRING_PROFILES_ACTIVE%"=="" set SPRING_PROFILES_ACTIVE=durable
+
 echo.
-echo Starting Rental Service with updated code...
+echo Starting Rental Service with updated code (profile %SPRING_PROFILES_ACTIVE%)...
 cd rental-service
 start "Rental Service" cmd /k "mvn spring-boot:run"
 
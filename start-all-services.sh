@@ -4,6 +4,7 @@ echo "Starting Car Rental Platform Services..."
 echo ""
 
 # Function to start a service in the background
+# FAST_STARTUP=1 runs the startup-optimized build (mvn package -Pfast-startup) when it exists
 start_service() {
     local service_name=$1
     local service_dir=$2
@@ -11,23 +12,84 @@ start_service() {
     
     echo "Starting $service_name (Port $port)..."
     cd "$service_dir" || exit
-    mvn spring-boot:run > "../logs/${service_name}.log" 2>&1 &
+    if [ "$FAST_STARTUP" = "1" ] && [ -f "target/fast-startup/${service_dir}.jsa" ]; then
+        (cd target/fast-startup && exec java -XX:SharedArchiveFile="${service_dir}.jsa" -Dspring.aot.enabled=true \
+            -jar "${service_dir}.jar") > "../logs/${service_name}.log" 2>&1 &
+    else
+        mvn spring-boot:run > "../logs/${service_name}.log" 2>&1 &
+    fi
     echo $! > "../logs/${service_name}.pid"
     cd ..
-    sleep 5
+}
+
+# Function to start RENTAL_REPLICAS instances of rental-service on ports 8082, 8182, 8282, ...
+# The instances share one database (cluster profile) and run the packaged jar (mvn package first)
+start_rental_replicas() {
+    local replicas=$1
+
+    cd rental-service || exit
+    for i in $(seq 1 "$replicas"); do
+        local port=$((8082 + (i - 1) * 100))
+        echo "Starting Rental Service $i (Port $port)..."
+        java -jar target/rental-service-1.0.0-exec.jar --spring.profiles.active=cluster --server.port="$port" \
+            > "../logs/Rental Service $i.log" 2>&1 &
+        echo $! > "../logs/Rental Service $i.pid"
+    done
+    cd ..
+
+    # analytics-service balances its rental-service calls over the replicas
+    : > logs/instances.properties
+    for i in $(seq 1 "$replicas"); do
+        echo "spring.cloud.discovery.client.simple.instances.rental-service[$((i - 1))].uri=http://localhost:$((8082 + (i - 1) * 100))" \
+            >> logs/instances.properties
+    done
+    export LOADBALANCER_INSTANCES_FILE="$PWD/logs/instances.properties"
+}
+
+# Function to wait until a service is ready (startup and warmup done)
+wait_for_service() {
+    local service_name=$1
+    local port=$3
+
+    for _ in $(seq 1 180); do
+        if curl -sf -o /dev/null "http://localhost:${port}/actuator/health/readiness"; then
+            echo "  $service_name is up"
+            return 0
+        fi
+        sleep 1
+    done
+    echo "  $service_name did not come up within 180 s, see logs/${service_name}.log"
+    return 1
 }
 
 # Create logs directory
 mkdir -p logs
 
-# Start services in order
+# Start all services at once; none of them needs another one to boot
 start_service "Car Service" "car-service" "8081"
 start_service "Payment Service" "payment-service" "8083"
-start_service "Rental Service" "rental-service" "8082"
+if [ "${RENTAL_REPLICAS:-1}" -gt 1 ]; then
+    start_rental_replicas "$RENTAL_REPLICAS"
+else
+    start_service "Rental Service" "rental-service" "8082"
+fi
 start_service "Analytics Service" "analytics-service" "8084"
 
 echo ""
-echo "All services are starting..."
+echo "Waiting for services to become ready..."
+wait_for_service "Car Service" "car-service" "8081"
+wait_for_service "Payment Service" "payment-service" "8083"
+if [ "${RENTAL_REPLICAS:-1}" -gt 1 ]; then
+    for i in $(seq 1 "$RENTAL_REPLICAS"); do
+        wait_for_service "Rental Service $i" "rental-service" $((8082 + (i - 1) * 100))
+    done
+else
+    wait_for_service "Rental Service" "rental-service" "8082"
+fi
+wait_for_service "Analytics Service" "analytics-service" "8084"
+
+echo ""
+echo "All services are started."
 echo ""
 echo "Service URLs:"
 echo "  Car Service:      http://localhost:8081/swagger-ui.html"
@@ -25,6 +25,10 @@ stop_service() {
 stop_service "Car Service"
 stop_service "Payment Service"
 stop_service "Rental Service"
+# Instances started with RENTAL_REPLICAS
+for pid_file in logs/Rental\ Service\ *.pid; do
+    [ -e "$pid_file" ] && stop_service "$(basename "$pid_file" .pid)"
+done
 stop_service "Analytics Service"
 
 echo ""